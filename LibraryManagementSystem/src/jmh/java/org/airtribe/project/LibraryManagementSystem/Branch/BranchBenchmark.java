@@ -0,0 +1,74 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class BranchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private LibraryFixture fixture;
+    private Branch branch;
+    private Branch otherBranch;
+    private Patron patron;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new LibraryFixture(catalogSize);
+        branch = fixture.newBranch(1, Integer.MAX_VALUE / 4);
+        otherBranch = fixture.newBranch(2, Integer.MAX_VALUE / 4);
+        patron = new Patron(1, "Benchmark Patron", "Address", "9999999999");
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        NotificationDispatcher.getDefault().flush();
+    }
+
+    private Book randomBook() {
+        return fixture.getBook(random.nextInt(catalogSize));
+    }
+
+    @Benchmark
+    public Token checkoutAndReturn() {
+        Token token = branch.checkoutBook(randomBook(), patron);
+        branch.returnBook(token);
+        return token;
+    }
+
+    @Benchmark
+    public void searchBookByTitle() {
+        branch.searchBook(randomBook().getTitle());
+    }
+
+    @Benchmark
+    public void searchBookByIsbn() {
+        branch.searchBook(Long.toString(randomBook().getIsbn()));
+    }
+
+    @Benchmark
+    public Set<Book> getAvailableBooks() {
+        return branch.getInventory().getAvailableBooks();
+    }
+
+    @Benchmark
+    public void transferBook() {
+        Book book = randomBook();
+        branch.transferBook(book, otherBranch, 1);
+        otherBranch.transferBook(book, branch, 1);
+    }
+}
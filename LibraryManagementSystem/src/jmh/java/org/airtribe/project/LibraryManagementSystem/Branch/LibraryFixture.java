@@ -0,0 +1,90 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookBuilder;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic catalog shared by the benchmarks: N books over N/20 authors, 24 genres and a small title vocabulary.
+class LibraryFixture {
+    private static final long FIRST_ISBN = 9_780_000_000_000L;
+    private static final int BATCH_SIZE = 4096;
+    private static final String[] WORDS = {
+            "river", "night", "garden", "war", "peace", "city", "star", "light", "ocean", "mountain",
+            "story", "secret", "life", "world", "code", "design", "patterns", "data", "history", "science",
+            "shadow", "empire", "journey", "winter", "summer", "machine", "learning", "kingdom", "silent", "storm"};
+
+    private final List<Book> books;
+
+    protected LibraryFixture(int catalogSize) {
+        SplittableRandom random = new SplittableRandom(catalogSize);
+        int authors = Math.max(1, catalogSize / 20);
+        books = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 2 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    title.append(' ');
+                }
+                title.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            books.add(new BookBuilder()
+                    .setIsbn(FIRST_ISBN + i)
+                    .setTitle(title.toString())
+                    .setAuthor("Author " + random.nextInt(authors))
+                    .setPublicationYear(1900 + random.nextInt(125))
+                    .setGenre("Genre " + random.nextInt(24))
+                    .build());
+        }
+    }
+
+    protected List<Book> getBooks() {
+        return books;
+    }
+
+    protected Book getBook(int index) {
+        return books.get(index);
+    }
+
+    protected Branch newBranch(int branchId, int copies) {
+        Branch branch = new Branch(branchId, "Benchmark Branch " + branchId, "Anywhere");
+        for (int from = 0; from < books.size(); from += BATCH_SIZE) {
+            List<Book> batch = books.subList(from, Math.min(books.size(), from + BATCH_SIZE));
+            int[] quantities = new int[batch.size()];
+            Arrays.fill(quantities, copies);
+            branch.getInventory().addCopies(batch, quantities);
+        }
+        return branch;
+    }
+
+    // Borrows and returns historySize random books so that the patron has a borrow history and preferences.
+    protected Patron newPatron(int patronId, Branch branch, int historySize, SplittableRandom random) {
+        Patron patron = new Patron(patronId, "Patron " + patronId, "Address", "9999999999");
+        for (int i = 0; i < historySize; i++) {
+            Token token = branch.checkoutBook(getBook(random.nextInt(books.size())), patron);
+            if (token != null) {
+                branch.returnBook(token);
+            }
+        }
+        return patron;
+    }
+
+    // Like newPatron, but the history is drawn from a pool of poolSize books shared by every patron of the same
+    // group of groupSize consecutive ids (counting from 1), so patrons of a group have overlapping histories.
+    protected Patron newGroupedPatron(int patronId, Branch branch, int historySize, int groupSize, int poolSize, SplittableRandom random) {
+        Patron patron = new Patron(patronId, "Patron " + patronId, "Address", "9999999999");
+        int poolStart = (int) ((long) ((patronId - 1) / groupSize) * poolSize % books.size());
+        for (int i = 0; i < historySize; i++) {
+            Token token = branch.checkoutBook(getBook((poolStart + random.nextInt(poolSize)) % books.size()), patron);
+            if (token != null) {
+                branch.returnBook(token);
+            }
+        }
+        return patron;
+    }
+}
@@ -0,0 +1,82 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.*;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class RecommendationBenchmark {
+    private static final int PATRONS = 200;
+    private static final int HISTORY_SIZE = 20;
+    private static final int GROUP_SIZE = 20;
+    private static final int GROUP_POOL_SIZE = 40;
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"author", "genre", "title", "coBorrow", "collaborative", "hybrid"})
+    public String recommender;
+
+    private RecommendationSystem recommendationSystem;
+    private Patron patron;
+    private Set<Book> availableBooks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LibraryFixture fixture = new LibraryFixture(catalogSize);
+        Branch branch = fixture.newBranch(1, 10);
+        CoBorrowRecommendation coBorrowRecommendation = new CoBorrowRecommendation();
+        branch.addLoanObserver(coBorrowRecommendation);
+        CollaborativeRecommendation collaborativeRecommendation = new CollaborativeRecommendation();
+        branch.addLoanObserver(collaborativeRecommendation);
+        HybridRecommendation hybridRecommendation = new HybridRecommendation();
+        branch.addLoanObserver(hybridRecommendation);
+        SplittableRandom random = new SplittableRandom(42);
+        // Uniformly random histories over the whole catalog share no books, which would leave collaborative
+        // filtering without a single neighbour; its patrons read from pools shared by groups of 20.
+        boolean isGrouped = recommender.equals("collaborative");
+        for (int i = 1; i <= PATRONS; i++) {
+            patron = isGrouped ? fixture.newGroupedPatron(i, branch, HISTORY_SIZE, GROUP_SIZE, GROUP_POOL_SIZE, random)
+                    : fixture.newPatron(i, branch, HISTORY_SIZE, random);
+        }
+        availableBooks = branch.getInventory().getAvailableBooks();
+        switch (recommender) {
+            case "author":
+                recommendationSystem = new AuthorRecommendation();
+                break;
+            case "genre":
+                recommendationSystem = new GenreRecommendation();
+                break;
+            case "title":
+                recommendationSystem = new TitleRecommendation();
+                break;
+            case "coBorrow":
+                recommendationSystem = coBorrowRecommendation;
+                break;
+            case "collaborative":
+                recommendationSystem = collaborativeRecommendation;
+                break;
+            case "hybrid":
+                recommendationSystem = hybridRecommendation;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown recommender " + recommender);
+        }
+    }
+
+    @Benchmark
+    public List<Book> getRecommendations() {
+        return recommendationSystem.getRecommendations(patron, availableBooks);
+    }
+}
@@ -0,0 +1,74 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.*;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Whole batch runs (every patron x every branch) of RecommendationJob, to pick its parallelism.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class RecommendationJobBenchmark {
+    private static final int BRANCHES = 4;
+    private static final int PATRONS = 100;
+    private static final int HISTORY_SIZE = 20;
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"genre", "hybrid"})
+    public String recommender;
+
+    private RecommendationJob job;
+    private List<Branch> branches;
+    private List<Patron> patrons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LibraryFixture fixture = new LibraryFixture(catalogSize);
+        branches = new ArrayList<>();
+        for (int branchId = 1; branchId <= BRANCHES; branchId++) {
+            branches.add(fixture.newBranch(branchId, 10));
+        }
+        HybridRecommendation hybridRecommendation = new HybridRecommendation();
+        branches.get(0).addLoanObserver(hybridRecommendation);
+        SplittableRandom random = new SplittableRandom(42);
+        patrons = new ArrayList<>();
+        for (int i = 1; i <= PATRONS; i++) {
+            patrons.add(fixture.newPatron(i, branches.get(0), HISTORY_SIZE, random));
+        }
+        RecommendationSystem recommendationSystem;
+        switch (recommender) {
+            case "genre":
+                recommendationSystem = new GenreRecommendation();
+                break;
+            case "hybrid":
+                recommendationSystem = hybridRecommendation;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown recommender " + recommender);
+        }
+        job = new RecommendationJob(recommendationSystem, parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        NotificationDispatcher.getDefault().flush();
+    }
+
+    @Benchmark
+    public RecommendationStore run() {
+        return job.run(branches, patrons);
+    }
+}
@@ -3,28 +3,50 @@ package org.airtribe.project.LibraryManagementSystem.Book;
 public class Book {
     private final long isbn;
     private final String title;
-    private final String author;
+    private final int authorCode;
     private final int publicationYear;
-    private String genre;
+    private int genreCode;
+    private final int[] titleTokenIds;
+    private int ordinal = -1;
 
     protected Book(long isbn, String title, String author, int publicationYear, String genre) {
         this.isbn = isbn;
         this.title = title;
-        this.author = author;
+        this.titleTokenIds = TitleAnalyzer.getInstance().analyze(title);
+        this.authorCode = StringDictionary.getAuthors().intern(author);
         this.publicationYear = publicationYear;
-        this.genre = genre;
+        this.genreCode = StringDictionary.getGenres().intern(genre);
     }
 
     public long getIsbn() {
         return isbn;
     }
 
+    // Dense ordinal of this ISBN, assigned by BookRegistry when the book is first stocked or loaded; -1 while the
+    // ISBN is unregistered. Only the canonical instance keeps it; other copies of the same ISBN look it up.
+    public int getOrdinal() {
+        int current = ordinal;
+        return current >= 0 ? current : BookRegistry.getInstance().ordinalOf(isbn);
+    }
+
+    void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     public String getTitle() {
         return title;
     }
 
+    int[] getTitleTokenIds() {
+        return titleTokenIds;
+    }
+
     public String getAuthor() {
-        return author;
+        return StringDictionary.getAuthors().getValue(authorCode);
+    }
+
+    public int getAuthorCode() {
+        return authorCode;
     }
 
     public int getPublicationYear() {
@@ -32,11 +54,31 @@ public class Book {
     }
 
     public String getGenre() {
-        return genre;
+        return StringDictionary.getGenres().getValue(genreCode);
+    }
+
+    public int getGenreCode() {
+        return genreCode;
     }
 
     public void updateGenre(String genre) {
-        this.genre = genre;
+        this.genreCode = StringDictionary.getGenres().intern(genre);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Book)) {
+            return false;
+        }
+        return isbn == ((Book) o).isbn;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(isbn);
     }
 
 }
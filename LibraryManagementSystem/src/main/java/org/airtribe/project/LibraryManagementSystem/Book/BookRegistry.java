@@ -0,0 +1,72 @@
+package org.airtribe.project.LibraryManagementSystem.Book;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Besides the canonical Book per ISBN, hands out dense ordinals (0, 1, 2, ...) in registration order,
+// so per-patron structures can key books by a small int instead of the ISBN.
+public class BookRegistry {
+    private static final BookRegistry instance = new BookRegistry();
+
+    private final Map<Long, Book> booksByIsbn = new ConcurrentHashMap<>();
+    private volatile Book[] booksByOrdinal = new Book[1024];
+    private int ordinals;
+
+    private BookRegistry() {
+    }
+
+    public static BookRegistry getInstance() {
+        return instance;
+    }
+
+    public Book register(Book book) {
+        Book canonical = booksByIsbn.get(book.getIsbn());
+        if (canonical != null) {
+            return canonical;
+        }
+        synchronized (this) {
+            canonical = booksByIsbn.get(book.getIsbn());
+            if (canonical != null) {
+                return canonical;
+            }
+            if (ordinals == booksByOrdinal.length) {
+                booksByOrdinal = Arrays.copyOf(booksByOrdinal, ordinals << 1);
+            }
+            book.setOrdinal(ordinals);
+            booksByOrdinal[ordinals++] = book;
+            booksByIsbn.put(book.getIsbn(), book);
+            return book;
+        }
+    }
+
+    // Read-only: -1 for an ISBN that was never registered.
+    public int ordinalOf(long isbn) {
+        Book canonical = booksByIsbn.get(isbn);
+        return canonical == null ? -1 : canonical.getOrdinal();
+    }
+
+    // For tests only: forgets every registered book and restarts ordinals at 0. Production code must never call
+    // it, since every patron history and recommender keyed by the old ordinals would silently point elsewhere.
+    public synchronized void reset() {
+        for (int i = 0; i < ordinals; i++) {
+            booksByOrdinal[i].setOrdinal(-1);
+        }
+        booksByIsbn.clear();
+        booksByOrdinal = new Book[1024];
+        ordinals = 0;
+    }
+
+    public Book getBookByOrdinal(int ordinal) {
+        Book[] books = booksByOrdinal;
+        return ordinal >= 0 && ordinal < books.length ? books[ordinal] : null;
+    }
+
+    public Book getBook(long isbn) {
+        return booksByIsbn.get(isbn);
+    }
+
+    public int size() {
+        return booksByIsbn.size();
+    }
+}
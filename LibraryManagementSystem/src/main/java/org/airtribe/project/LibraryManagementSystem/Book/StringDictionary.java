@@ -0,0 +1,67 @@
+package org.airtribe.project.LibraryManagementSystem.Book;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interns the few thousand distinct authors and genres shared by every Book as dense int codes, so a catalog
+// holds one String per distinct value and comparisons are int comparisons. Codes are never reused.
+public class StringDictionary {
+    public static final int NO_CODE = -1;
+
+    private static final StringDictionary authors = new StringDictionary();
+    private static final StringDictionary genres = new StringDictionary();
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    private StringDictionary() {
+    }
+
+    public static StringDictionary getAuthors() {
+        return authors;
+    }
+
+    public static StringDictionary getGenres() {
+        return genres;
+    }
+
+    public int intern(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+    }
+
+    // NO_CODE when the value was never interned, which also means no Book carries it.
+    public int getCode(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        return codes.getOrDefault(value, NO_CODE);
+    }
+
+    public String getValue(int code) {
+        return code == NO_CODE ? null : values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,137 @@
+package org.airtribe.project.LibraryManagementSystem.Book;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+public class TitleAnalyzer {
+    private static final TitleAnalyzer instance = new TitleAnalyzer();
+    private static final int[] NO_TOKENS = new int[0];
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Set<String> ignoreKeywords = new HashSet<>();
+
+    static{
+        ignoreKeywords.add("the");
+        ignoreKeywords.add("a");
+        ignoreKeywords.add("an");
+        ignoreKeywords.add("of");
+        ignoreKeywords.add("and");
+        ignoreKeywords.add("in");
+        ignoreKeywords.add("on");
+        ignoreKeywords.add("at");
+        ignoreKeywords.add("to");
+        ignoreKeywords.add("for");
+        ignoreKeywords.add("with");
+        ignoreKeywords.add("by");
+        ignoreKeywords.add("from");
+        ignoreKeywords.add("as");
+        ignoreKeywords.add("is");
+        ignoreKeywords.add("are");
+        ignoreKeywords.add("was");
+        ignoreKeywords.add("were");
+        ignoreKeywords.add("has");
+        ignoreKeywords.add("have");
+        ignoreKeywords.add("had");
+        ignoreKeywords.add("will");
+        ignoreKeywords.add("would");
+    }
+
+    private final Map<String, Integer> tokenIds = new ConcurrentHashMap<>();
+    private final List<String> tokens = new ArrayList<>();
+
+    private TitleAnalyzer() {
+    }
+
+    public static TitleAnalyzer getInstance() {
+        return instance;
+    }
+
+    public boolean isIgnoredKeyword(String keyword) {
+        return ignoreKeywords.contains(keyword.toLowerCase(Locale.ROOT));
+    }
+
+    public int[] analyze(String title) {
+        if (title == null || title.isBlank()) {
+            return NO_TOKENS;
+        }
+        String[] keywords = WHITESPACE.split(title.trim().toLowerCase(Locale.ROOT));
+        int[] ids = new int[keywords.length];
+        int count = 0;
+        for (String keyword : keywords) {
+            if (ignoreKeywords.contains(keyword)) {
+                continue;
+            }
+            ids[count++] = intern(keyword);
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        int unique = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return unique == ids.length ? ids : Arrays.copyOf(ids, unique);
+    }
+
+    public int getTokenId(String keyword) {
+        return tokenIds.getOrDefault(keyword.toLowerCase(Locale.ROOT), -1);
+    }
+
+    public String getToken(int tokenId) {
+        synchronized (tokens) {
+            return tokens.get(tokenId);
+        }
+    }
+
+    public int getTokenCount() {
+        return tokenIds.size();
+    }
+
+    public int[] getTitleTokenIds(Book book) {
+        return book.getTitleTokenIds().clone();
+    }
+
+    public void addTitleTokens(Book book, BitSet target) {
+        for (int tokenId : book.getTitleTokenIds()) {
+            target.set(tokenId);
+        }
+    }
+
+    public boolean sharesTitleToken(Book book, BitSet tokenIds) {
+        for (int tokenId : book.getTitleTokenIds()) {
+            if (tokenIds.get(tokenId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Share of the book's title keywords found in tokenIds, 0 for a title made of stop words only.
+    public double getSharedTitleTokenRatio(Book book, BitSet tokenIds) {
+        int[] titleTokenIds = book.getTitleTokenIds();
+        if (titleTokenIds.length == 0) {
+            return 0;
+        }
+        int shared = 0;
+        for (int tokenId : titleTokenIds) {
+            if (tokenIds.get(tokenId)) {
+                shared++;
+            }
+        }
+        return (double) shared / titleTokenIds.length;
+    }
+
+    private int intern(String keyword) {
+        Integer id = tokenIds.get(keyword);
+        if (id != null) {
+            return id;
+        }
+        synchronized (tokens) {
+            return tokenIds.computeIfAbsent(keyword, k -> {
+                tokens.add(k);
+                return tokens.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+
+public class BookQuery {
+    private boolean availableOnly;
+    private String author;
+    private String genre;
+
+    public BookQuery setAvailableOnly(boolean availableOnly) {
+        this.availableOnly = availableOnly;
+        return this;
+    }
+
+    public BookQuery setAuthor(String author) {
+        this.author = author;
+        return this;
+    }
+
+    public BookQuery setGenre(String genre) {
+        this.genre = genre;
+        return this;
+    }
+
+    public boolean isAvailableOnly() {
+        return availableOnly;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    // The author filter is applied by Inventory.queryBooks, which resolves it once per distinct author.
+    protected boolean matches(Book book) {
+        return genre == null || genre.trim().equalsIgnoreCase(book.getGenre() == null ? "" : book.getGenre().trim());
+    }
+}
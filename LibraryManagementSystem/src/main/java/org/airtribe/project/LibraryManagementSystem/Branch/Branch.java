@@ -1,11 +1,22 @@
 package org.airtribe.project.LibraryManagementSystem.Branch;
 
 import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.RecommendationCache;
 import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.RecommendationSystem;
 import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
 public class Branch {
     private static final Logger logger = LogManager.getLogger(Branch.class);
 
@@ -13,12 +24,30 @@ public class Branch {
     private String branchName;
     private String branchAddress;
     private final Inventory inventory;
+    private final List<LoanObserver> loanObservers = new CopyOnWriteArrayList<>();
+    private final RecommendationCache recommendationCache = new RecommendationCache();
+    private volatile OverdueScheduler overdueScheduler;
 
     public Branch(int branchId, String branchName, String branchAddress) {
+        this(branchId, branchName, branchAddress, NotificationDispatcher.getDefault());
+    }
+
+    public Branch(int branchId, String branchName, String branchAddress, NotificationDispatcher notificationDispatcher) {
+        this(branchId, branchName, branchAddress, notificationDispatcher, System::currentTimeMillis);
+    }
+
+    // The clock stamps issue and due times of loans; tests pass the same clock as the OverdueScheduler.
+    public Branch(int branchId, String branchName, String branchAddress, NotificationDispatcher notificationDispatcher, LongSupplier clock) {
         this.branchId = branchId;
         this.branchName = branchName;
         this.branchAddress = branchAddress;
-        this.inventory = new Inventory();
+        this.inventory = new Inventory(notificationDispatcher, clock);
+    }
+
+    public static Branch recover(int branchId, String branchName, String branchAddress, InventoryJournal journal, IntFunction<Patron> patronResolver) throws IOException {
+        Branch branch = new Branch(branchId, branchName, branchAddress);
+        journal.recover(branch.inventory, patronResolver);
+        return branch;
     }
 
     public Inventory getInventory() {
@@ -51,11 +80,7 @@ public class Branch {
     }
 
     public void addBook(Book book, int quantity) {
-        if(inventory.containsBook(book)) {
-            inventory.updateQuantity(book, inventory.getQuantity(book) + quantity);
-            return;
-        }
-        inventory.addBook(book, quantity);
+        inventory.addCopies(book, quantity);
     }
 
     public void removeBook(Book book) {
@@ -68,37 +93,83 @@ public class Branch {
         logger.info("Search Book - Branch: {}\tBranch ID: {}", branchName, branchId);
         boolean isFound = (inventory.searchBookByTitle(parameter) || inventory.searchBookByAuthor(parameter) || inventory.searchBookByIsbn(parameter));
         if (!isFound) {
-            logger.info('\t' + " Book not found with property : {}\n", parameter);
+            logger.info('\t' + " Book not found with property : {}", parameter);
+            logger.info('\t' + " Did you mean:");
+            if (!inventory.searchBookFuzzy(parameter)) {
+                logger.info('\t' + " No similar books found\n");
+            }
         }
     }
 
+    public List<Book> fuzzySearchBooks(String parameter, int maxDistance) {
+        return inventory.fuzzyFindBooks(parameter, maxDistance);
+    }
+
+    public Set<Book> findBooks(String parameter) {
+        return inventory.findBooks(parameter);
+    }
+
+    public Stream<Book> queryBooks(BookQuery query) {
+        return inventory.queryBooks(query);
+    }
+
+    public Page<Book> queryBooks(BookQuery query, int pageSize) {
+        return new Page<>(inventory.queryBooks(query).iterator(), pageSize);
+    }
+
+    public Stream<Token> queryBorrowedBooks() {
+        return inventory.queryLoans();
+    }
+
+    public Page<Token> queryBorrowedBooks(int pageSize) {
+        return new Page<>(inventory.queryLoans().iterator(), pageSize);
+    }
+
     public void updateQuantity(Book book, int quantity) {
         inventory.updateQuantity(book, quantity);
     }
 
     public Token checkoutBook(Book book, Patron patron) {
         if(!inventory.isAvailable(book) ) {
-            logger.warn("Failed Transaction: Book not available" + '\n');
-            inventory.addObserver(book, patron);
-            logger.info("Notification: Patron {} is subscribed for book: {}", patron.getPatronName(), book.getTitle());
+            subscribe(book, patron);
             return null;
         }
-        if(patron.getBorrowedBooksCount() < 5 && patron.hasBorrowedTheBook(book)) {
-            Token token = inventory.issueToken(book, patron);
-            patron.borrowBook(book, token);
-            inventory.checkoutBook(book);
-            inventory.notifyObservers(book, false, this);
-            return token;
+        synchronized (patron) {
+            if(patron.getBorrowedBooksCount() < 5 && patron.hasBorrowedTheBook(book)) {
+                Token token = inventory.checkoutBook(book, patron);
+                if(token == null) {
+                    subscribe(book, patron);
+                    return null;
+                }
+                patron.borrowBook(book, token);
+                OverdueScheduler scheduler = overdueScheduler;
+                if (scheduler != null) {
+                    scheduler.schedule(token, this);
+                }
+                inventory.notifyObservers(book, false, this);
+                for (LoanObserver observer : loanObservers) {
+                    observer.onBookCheckedOut(patron, book, this);
+                }
+                return token;
+            }
         }
 
         logger.warn("Invalid Transaction: {} cannot borrow the book {}" + '\n', patron.getPatronName(), book.getTitle());
         return null;
     }
 
+    private void subscribe(Book book, Patron patron) {
+        logger.warn("Failed Transaction: Book not available" + '\n');
+        reserveBook(book, patron);
+    }
+
+    public void reserveBook(Book book, Patron patron) {
+        inventory.addObserver(book, patron);
+        logger.info("Notification: Patron {} is subscribed for book: {}", patron.getPatronName(), book.getTitle());
+    }
+
     public void returnBook(Token token) {
-        if(token != null && inventory.hasToken(token)) {
-            inventory.returnBook(token);
-            token.getPatron().returnBook(token.getBook());
+        if(token != null && returnLoan(token)) {
             logger.info("{} Book is returned successfully by {}\n", token.getBook().getTitle(), token.getPatron().getPatronName());
             inventory.removeObserver(token.getBook(), token.getPatron());
             inventory.notifyObservers(token.getBook(), true, this);
@@ -107,9 +178,38 @@ public class Branch {
         logger.warn("Token is invalid" + '\n');
     }
 
+    // Serialized per patron like checkoutBook, so the patron's history, preferences and signature, and what the
+    // loan observers read from them, see one loan event at a time.
+    private boolean returnLoan(Token token) {
+        Patron patron = token.getPatron();
+        synchronized (patron) {
+            if (!inventory.returnBook(token)) {
+                return false;
+            }
+            OverdueScheduler scheduler = overdueScheduler;
+            if (scheduler != null) {
+                scheduler.cancel(token);
+            }
+            boolean isFirstRead = patron.hasAlreadyReadTheBook(token.getBook());
+            patron.returnBook(token.getBook());
+            for (LoanObserver observer : loanObservers) {
+                observer.onBookReturned(patron, token.getBook(), this, isFirstRead);
+            }
+            return true;
+        }
+    }
+
     public void recommendBooks(Patron patron, RecommendationSystem recommendationSystem) {
         logger.info("Recommend Books - Branch: {}\tBranch ID: {}", branchName, branchId);
-        recommendationSystem.displayRecommendations(patron, inventory);
+        recommendationSystem.displayRecommendations(getRecommendations(patron, recommendationSystem));
+    }
+
+    public List<Book> getRecommendations(Patron patron, RecommendationSystem recommendationSystem) {
+        return recommendationCache.getRecommendations(patron, recommendationSystem, inventory);
+    }
+
+    public RecommendationCache getRecommendationCache() {
+        return recommendationCache;
     }
 
     public void displayBorrowedDetails(){
@@ -118,8 +218,7 @@ public class Branch {
     }
 
     public void transferBook(Book book, Branch branch, int quantity) {
-        if(inventory.isAvailable(book) && inventory.getQuantity(book) >= quantity) {
-            inventory.updateQuantity(book, inventory.getQuantity(book) - quantity);
+        if(inventory.withdrawCopies(book, quantity, branch.getBranchId())) {
             branch.addBook(book, quantity);
             return;
         }
@@ -128,9 +227,51 @@ public class Branch {
 
     public void searchBookAvailabilityInOtherBranches(Book book, Branch branch) {
         logger.info("Search Book Availability in Other Branches - Branch: {}\tBranch ID: {}", branchName, branchId);
+        if (!branch.getInventory().mightContain(book)) {
+            logger.info('\t' + " Book {} is not stocked at Branch: {}\n", book.getTitle(), branch.getBranchName());
+            return;
+        }
         branch.searchBook(book.getTitle());
     }
 
+    // Fans out over the given branches; the stock filters rule out most branches without touching their stock.
+    public List<Branch> searchBookAvailabilityInOtherBranches(Book book, Collection<Branch> branches) {
+        logger.info("Search Book Availability in Other Branches - Branch: {}\tBranch ID: {}", branchName, branchId);
+        List<Branch> available = new ArrayList<>();
+        for (Branch branch : branches) {
+            if (branch == this || !branch.getInventory().mightContain(book) || !branch.getInventory().isAvailable(book)) {
+                continue;
+            }
+            available.add(branch);
+            logger.info("\tBranch: {}\tBranch ID: {}\tQuantity: {}", branch.getBranchName(), branch.getBranchId(), branch.getInventory().getQuantity(book));
+        }
+        if (available.isEmpty()) {
+            logger.info('\t' + " Book {} is not available in other branches\n", book.getTitle());
+        }
+        return available;
+    }
+
+    public void addLoanObserver(LoanObserver observer) {
+        loanObservers.add(observer);
+    }
+
+    public void removeLoanObserver(LoanObserver observer) {
+        loanObservers.remove(observer);
+    }
+
+    public void setOverdueScheduler(OverdueScheduler overdueScheduler) {
+        OverdueScheduler previous = this.overdueScheduler;
+        this.overdueScheduler = overdueScheduler;
+        for (Token token : inventory.getBorrowedTokens()) {
+            if (previous != null) {
+                previous.cancel(token);
+            }
+            if (overdueScheduler != null) {
+                overdueScheduler.schedule(token, this);
+            }
+        }
+    }
+
     public void removeObserver(Book book, Patron patron) {
         inventory.removeObserver(book, patron);
     }
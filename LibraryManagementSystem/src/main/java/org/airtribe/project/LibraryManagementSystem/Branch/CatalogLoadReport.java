@@ -0,0 +1,41 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+public class CatalogLoadReport {
+    private final long records;
+    private final long loaded;
+    private final long duplicates;
+    private final long rejected;
+    private final long elapsedMillis;
+
+    protected CatalogLoadReport(long records, long loaded, long duplicates, long rejected, long elapsedMillis) {
+        this.records = records;
+        this.loaded = loaded;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getLoaded() {
+        return loaded;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRecordsPerSecond() {
+        return elapsedMillis == 0 ? records * 1000 : records * 1000 / elapsedMillis;
+    }
+}
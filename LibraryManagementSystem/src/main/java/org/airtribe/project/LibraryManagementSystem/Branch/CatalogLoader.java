@@ -0,0 +1,432 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Bulk loads CSV or JSON-lines catalog exports into a Branch.
+// The file is read in line aligned chunks; chunks are parsed in parallel, then deduplicated by ISBN and fed to
+// the Inventory in batches in file order, so the first row of a duplicated ISBN always wins.
+// The number of chunks in flight is bounded to cap heap usage.
+public class CatalogLoader {
+    private static final Logger logger = LogManager.getLogger(CatalogLoader.class);
+
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final String[] DEFAULT_COLUMNS = {"isbn", "title", "author", "publicationYear", "genre", "quantity"};
+
+    public enum Format {
+        CSV,
+        JSON_LINES;
+
+        public static Format fromPath(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json") ? JSON_LINES : CSV;
+        }
+    }
+
+    private final int parallelism;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public CatalogLoader() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, DEFAULT_BATCH_SIZE);
+    }
+
+    public CatalogLoader(int parallelism, int chunkSize, int batchSize) {
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    public CatalogLoadReport load(Path path, Branch branch) throws IOException {
+        return load(path, Format.fromPath(path), branch.getInventory());
+    }
+
+    public CatalogLoadReport load(Path path, Format format, Inventory inventory) throws IOException {
+        long start = System.nanoTime();
+        LongIntHashMap seen = new LongIntHashMap();
+        long records = 0;
+        long loaded = 0;
+        long duplicates = 0;
+        long rejected = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        int maxInFlight = parallelism * 2;
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>(maxInFlight);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+            String[] columns = format == Format.CSV ? null : DEFAULT_COLUMNS;
+            boolean endOfFile = false;
+            while (!endOfFile || !inFlight.isEmpty()) {
+                // Chunks are applied strictly in file order, whichever finishes parsing first.
+                if (endOfFile || inFlight.size() == maxInFlight) {
+                    ParsedChunk parsed = inFlight.poll().get();
+                    apply(parsed, inventory, seen);
+                    records += parsed.records;
+                    loaded += parsed.loaded;
+                    duplicates += parsed.duplicates;
+                    rejected += parsed.rejected;
+                    continue;
+                }
+                endOfFile = channel.read(buffer) < 0;
+                int end = endOfFile ? buffer.position() : lastNewline(buffer) + 1;
+                if (end <= 0) {
+                    if (!endOfFile && !buffer.hasRemaining()) {
+                        buffer = grow(buffer);
+                    }
+                    continue;
+                }
+                byte[] chunk = Arrays.copyOf(buffer.array(), end);
+                buffer.flip().position(end);
+                buffer.compact();
+
+                if (columns == null) {
+                    int headerEnd = indexOf(chunk, (byte) '\n');
+                    String firstLine = new String(chunk, 0, headerEnd < 0 ? chunk.length : headerEnd, StandardCharsets.UTF_8).trim();
+                    columns = parseHeader(firstLine);
+                    if (columns != DEFAULT_COLUMNS) {
+                        chunk = headerEnd < 0 ? new byte[0] : Arrays.copyOfRange(chunk, headerEnd + 1, chunk.length);
+                    }
+                }
+
+                String[] chunkColumns = columns;
+                byte[] chunkBytes = chunk;
+                inFlight.add(executor.submit(() -> parseChunk(chunkBytes, format, chunkColumns, seen)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Catalog load was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Catalog load failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CatalogLoadReport report = new CatalogLoadReport(records, loaded, duplicates, rejected,
+                (System.nanoTime() - start) / 1_000_000);
+        logger.info("Loaded catalog {}: {} record(s), {} book(s) added, {} duplicate(s), {} rejected in {} ms ({} records/s)",
+                path.getFileName(), report.getRecords(), report.getLoaded(), report.getDuplicates(), report.getRejected(),
+                report.getElapsedMillis(), report.getRecordsPerSecond());
+        return report;
+    }
+
+    // Valid records of one chunk in file order, without the ISBNs repeated within the chunk or already applied.
+    private static final class ParsedChunk {
+        private final List<Book> books = new ArrayList<>();
+        private int[] quantities = new int[64];
+        private long records;
+        private long loaded;
+        private long duplicates;
+        private long rejected;
+
+        private void add(Book book, int quantity) {
+            if (books.size() == quantities.length) {
+                quantities = Arrays.copyOf(quantities, quantities.length * 2);
+            }
+            quantities[books.size()] = quantity;
+            books.add(book);
+        }
+    }
+
+    // Runs on the worker threads. The ISBN is checked before a Book is built, so a duplicate row costs no Book
+    // and interns no strings; duplicates of rows in chunks that are not applied yet are caught by apply().
+    private ParsedChunk parseChunk(byte[] chunk, Format format, String[] columns, LongIntHashMap seen) {
+        ParsedChunk parsed = new ParsedChunk();
+        LongIntHashMap chunkIsbns = new LongIntHashMap();
+        String text = new String(chunk, StandardCharsets.UTF_8);
+        int lineStart = 0;
+        int length = text.length();
+        while (lineStart < length) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            String line = text.substring(lineStart, lineEnd).trim();
+            lineStart = lineEnd + 1;
+            if (line.isEmpty()) {
+                continue;
+            }
+            parsed.records++;
+            Map<String, String> fields = format == Format.CSV ? parseCsv(line, columns) : parseJson(line);
+            int quantity = fields == null ? 0 : parseInt(fields.get("quantity"), 1);
+            long isbn = fields == null || quantity < 0 ? 0 : validIsbn(fields);
+            if (isbn <= 0) {
+                parsed.rejected++;
+                continue;
+            }
+            if (seen.containsKey(isbn) || !chunkIsbns.putIfAbsent(isbn, 1)) {
+                parsed.duplicates++;
+                continue;
+            }
+            parsed.add(toBook(isbn, fields), quantity);
+        }
+        return parsed;
+    }
+
+    // Runs on the reading thread in file order, so of several rows with one ISBN the first in the file is kept.
+    private void apply(ParsedChunk parsed, Inventory inventory, LongIntHashMap seen) {
+        List<Book> books = new ArrayList<>(batchSize);
+        int[] quantities = new int[batchSize];
+        for (int i = 0; i < parsed.books.size(); i++) {
+            Book book = parsed.books.get(i);
+            if (!seen.putIfAbsent(book.getIsbn(), 1)) {
+                parsed.duplicates++;
+                continue;
+            }
+            quantities[books.size()] = parsed.quantities[i];
+            books.add(book);
+            if (books.size() == batchSize) {
+                inventory.addCopies(books, quantities);
+                parsed.loaded += books.size();
+                books.clear();
+            }
+        }
+        if (!books.isEmpty()) {
+            inventory.addCopies(books, Arrays.copyOf(quantities, books.size()));
+            parsed.loaded += books.size();
+        }
+    }
+
+    // The ISBN when every required field is present and well formed, 0 otherwise.
+    private static long validIsbn(Map<String, String> fields) {
+        long isbn = parseLong(fields.get("isbn"));
+        int publicationYear = parseInt(fields.get("publicationYear"), 0);
+        if (isbn <= 0 || publicationYear <= 0 || fields.get("title") == null || fields.get("author") == null) {
+            return 0;
+        }
+        return isbn;
+    }
+
+    private static Book toBook(long isbn, Map<String, String> fields) {
+        return new BookBuilder()
+                .setIsbn(isbn)
+                .setTitle(fields.get("title"))
+                .setAuthor(fields.get("author"))
+                .setPublicationYear(parseInt(fields.get("publicationYear"), 0))
+                .setGenre(fields.get("genre"))
+                .build();
+    }
+
+    private static String[] parseHeader(String line) {
+        List<String> header = splitCsv(line);
+        if (header == null || header.isEmpty() || parseLong(header.get(0)) > 0) {
+            return DEFAULT_COLUMNS;
+        }
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            String column = header.get(i).trim();
+            for (String known : DEFAULT_COLUMNS) {
+                if (known.equalsIgnoreCase(column)) {
+                    column = known;
+                }
+            }
+            columns[i] = column;
+        }
+        return columns;
+    }
+
+    private static Map<String, String> parseCsv(String line, String[] columns) {
+        List<String> values = splitCsv(line);
+        if (values == null) {
+            return null;
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < columns.length && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            fields.put(columns[i], value.isEmpty() ? null : value);
+        }
+        return fields;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    // Flat JSON objects only: string, number, boolean and null values.
+    private static Map<String, String> parseJson(String line) {
+        Map<String, String> fields = new HashMap<>();
+        int[] position = {skipWhitespace(line, 0)};
+        if (position[0] >= line.length() || line.charAt(position[0]) != '{') {
+            return null;
+        }
+        position[0] = skipWhitespace(line, position[0] + 1);
+        if (position[0] < line.length() && line.charAt(position[0]) == '}') {
+            return fields;
+        }
+        while (position[0] < line.length()) {
+            if (line.charAt(position[0]) != '"') {
+                return null;
+            }
+            String key = readJsonString(line, position);
+            position[0] = skipWhitespace(line, position[0]);
+            if (key == null || position[0] >= line.length() || line.charAt(position[0]) != ':') {
+                return null;
+            }
+            position[0] = skipWhitespace(line, position[0] + 1);
+            String value;
+            if (position[0] < line.length() && line.charAt(position[0]) == '"') {
+                value = readJsonString(line, position);
+                if (value == null) {
+                    return null;
+                }
+            } else {
+                int end = position[0];
+                while (end < line.length() && line.charAt(end) != ',' && line.charAt(end) != '}') {
+                    end++;
+                }
+                value = line.substring(position[0], end).trim();
+                if (value.equals("null")) {
+                    value = null;
+                }
+                position[0] = end;
+            }
+            fields.put(key, value);
+            position[0] = skipWhitespace(line, position[0]);
+            if (position[0] >= line.length()) {
+                return null;
+            }
+            char separator = line.charAt(position[0]);
+            if (separator == '}') {
+                return fields;
+            }
+            if (separator != ',') {
+                return null;
+            }
+            position[0] = skipWhitespace(line, position[0] + 1);
+        }
+        return null;
+    }
+
+    private static String readJsonString(String line, int[] position) {
+        StringBuilder value = new StringBuilder();
+        int i = position[0] + 1;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (c == '"') {
+                position[0] = i;
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (i >= line.length()) {
+                return null;
+            }
+            char escaped = line.charAt(i++);
+            switch (escaped) {
+                case 'n': value.append('\n'); break;
+                case 't': value.append('\t'); break;
+                case 'r': value.append('\r'); break;
+                case 'b': value.append('\b'); break;
+                case 'f': value.append('\f'); break;
+                case 'u':
+                    if (i + 4 > line.length()) {
+                        return null;
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(line.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    i += 4;
+                    break;
+                default: value.append(escaped);
+            }
+        }
+        return null;
+    }
+
+    private static int skipWhitespace(String line, int position) {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int lastNewline(ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        for (int i = buffer.position() - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] bytes, byte value) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
@@ -0,0 +1,280 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Positional character trigram index over normalized terms (titles or authors) for edit distance search.
+// Candidates come from a few selective trigrams of the query (see searchCandidates) and are checked with a
+// banded Levenshtein distance that stops as soon as it exceeds k.
+class FuzzyIndex {
+    private static final char PAD = '\u0001';
+    private static final int MAX_POSITION = 0xFFFF;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private final ThreadLocal<int[]> scratches = ThreadLocal.withInitial(() -> new int[0]);
+
+    protected static class Match {
+        private final String term;
+        private final int distance;
+
+        private Match(String term, int distance) {
+            this.term = term;
+            this.distance = distance;
+        }
+
+        protected String getTerm() {
+            return term;
+        }
+
+        protected int getDistance() {
+            return distance;
+        }
+    }
+
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = id;
+        }
+
+        private void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    protected void add(String term) {
+        lock.writeLock().lock();
+        try {
+            if (termIds.containsKey(term)) {
+                return;
+            }
+            int id;
+            if (freeIds.isEmpty()) {
+                id = terms.size();
+                terms.add(term);
+            } else {
+                id = freeIds.pop();
+                terms.set(id, term);
+            }
+            termIds.put(term, id);
+            long[] trigrams = trigrams(term);
+            for (int position = 0; position < Math.min(trigrams.length, MAX_POSITION + 1); position++) {
+                postings.computeIfAbsent(key(trigrams[position], position), key -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    protected void remove(String term) {
+        lock.writeLock().lock();
+        try {
+            Integer id = termIds.remove(term);
+            if (id == null) {
+                return;
+            }
+            long[] trigrams = trigrams(term);
+            for (int position = 0; position < Math.min(trigrams.length, MAX_POSITION + 1); position++) {
+                long key = key(trigrams[position], position);
+                Postings list = postings.get(key);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.size == 0) {
+                        postings.remove(key);
+                    }
+                }
+            }
+            terms.set(id, null);
+            freeIds.push(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    protected List<Match> search(String query, int maxDistance, int limit) {
+        long[] queryTrigrams = trigrams(query);
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            searchCandidates(query, queryTrigrams, maxDistance, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance).thenComparing(Match::getTerm));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    // Edits touch at most k of the query's non-overlapping trigrams, so a match contains at least one of any k + 1
+    // of them, shifted by at most k positions. Of the three ways to tile the query, the one whose k + 1 rarest
+    // trigrams have the shortest position windows supplies the candidates.
+    private void searchCandidates(String query, long[] queryTrigrams, int maxDistance, List<Match> matches) {
+        int[] best = null;
+        long bestCost = Long.MAX_VALUE;
+        for (int start = 0; start < 3; start++) {
+            int tiles = (queryTrigrams.length - start + 2) / 3;
+            if (tiles <= maxDistance) {
+                continue;
+            }
+            Integer[] positions = new Integer[tiles];
+            long[] sizes = new long[queryTrigrams.length];
+            for (int i = 0; i < tiles; i++) {
+                positions[i] = start + 3 * i;
+                sizes[positions[i]] = windowSize(queryTrigrams[positions[i]], positions[i], maxDistance);
+            }
+            Arrays.sort(positions, Comparator.comparingLong(position -> sizes[position]));
+            long cost = 0;
+            int[] selected = new int[maxDistance + 1];
+            for (int i = 0; i <= maxDistance; i++) {
+                selected[i] = positions[i];
+                cost += sizes[positions[i]];
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = selected;
+            }
+        }
+        if (best == null) {
+            for (int id = 0; id < terms.size(); id++) {
+                verify(query, id, maxDistance, matches);
+            }
+            return;
+        }
+        int[] seen = scratch();
+        Postings candidates = new Postings();
+        for (int position : best) {
+            for (int offset = -maxDistance; offset <= maxDistance; offset++) {
+                Postings list = window(queryTrigrams[position], position + offset);
+                if (list == null) {
+                    continue;
+                }
+                for (int j = 0; j < list.size; j++) {
+                    int id = list.ids[j];
+                    if (seen[id] == 0) {
+                        seen[id] = 1;
+                        candidates.add(id);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            int id = candidates.ids[i];
+            seen[id] = 0;
+            verify(query, id, maxDistance, matches);
+        }
+    }
+
+    private long windowSize(long trigram, int position, int maxDistance) {
+        long size = 0;
+        for (int offset = -maxDistance; offset <= maxDistance; offset++) {
+            Postings list = window(trigram, position + offset);
+            size += list == null ? 0 : list.size;
+        }
+        return size;
+    }
+
+    private Postings window(long trigram, int position) {
+        if (position < 0 || position > MAX_POSITION) {
+            return null;
+        }
+        return postings.get(key(trigram, position));
+    }
+
+    // Per thread candidate marks, indexed by term id and cleared after every search.
+    private int[] scratch() {
+        int[] seen = scratches.get();
+        if (seen.length < terms.size()) {
+            seen = new int[terms.size() + (terms.size() >> 1)];
+            scratches.set(seen);
+        }
+        return seen;
+    }
+
+    protected int size() {
+        lock.readLock().lock();
+        try {
+            return termIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void verify(String query, int id, int maxDistance, List<Match> matches) {
+        String term = terms.get(id);
+        if (term == null || Math.abs(term.length() - query.length()) > maxDistance) {
+            return;
+        }
+        int distance = distance(query, term, maxDistance);
+        if (distance <= maxDistance) {
+            matches.add(new Match(term, distance));
+        }
+    }
+
+    // Levenshtein distance restricted to a band of width 2k + 1; returns k + 1 once every cell exceeds k.
+    protected static int distance(String a, String b, int maxDistance) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int outside = maxDistance + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= maxDistance ? j : outside;
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(m, i + maxDistance);
+            current[0] = i <= maxDistance ? i : outside;
+            if (from > 1) {
+                current[from - 1] = outside;
+            }
+            int rowMinimum = current[0];
+            char c = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(value, outside);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = outside;
+            }
+            if (rowMinimum > maxDistance) {
+                return outside;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
+    }
+
+    // Trigrams in order of position; the index keys each one by its position as well.
+    private static long[] trigrams(String term) {
+        String padded = PAD + term + PAD;
+        long[] trigrams = new long[Math.max(0, padded.length() - 2)];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return trigrams;
+    }
+
+    private static long key(long trigram, int position) {
+        return ((long) position << 48) | trigram;
+    }
+}
@@ -1,133 +1,531 @@
 package org.airtribe.project.LibraryManagementSystem.Branch;
 
 import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
 import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public class Inventory {
     private static final Logger logger = LogManager.getLogger(Inventory.class);
+    private static final int FUZZY_SEARCH_DISTANCE = 2;
+    private static final int FUZZY_SEARCH_LIMIT = 10;
 
-    private final Map<Book, Integer> booksAvailable = new HashMap<>();
-    private final Set<Token> booksBorrowed = new HashSet<>();
+    private final BookRegistry bookRegistry = BookRegistry.getInstance();
+    private final LongIntHashMap booksAvailable = new LongIntHashMap();
+    private final LoanLedger loanLedger;
     private final Reservations reservations = new Reservations();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final StripedLocks locks = new StripedLocks();
+    private final StockFilter stockFilter = new StockFilter();
+    private final List<StockObserver> stockObservers = new CopyOnWriteArrayList<>();
+    private final NotificationDispatcher notificationDispatcher;
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private volatile InventoryJournal journal;
+    private final AtomicReference<InventorySnapshot> snapshot = new AtomicReference<>(InventorySnapshot.EMPTY);
+    private final ThreadLocal<List<UnaryOperator<InventorySnapshot>>> snapshotChanges = new ThreadLocal<>();
+
+    public Inventory() {
+        this(NotificationDispatcher.getDefault());
+    }
+
+    protected Inventory(NotificationDispatcher notificationDispatcher) {
+        this(notificationDispatcher, System::currentTimeMillis);
+    }
+
+    protected Inventory(NotificationDispatcher notificationDispatcher, LongSupplier clock) {
+        this.notificationDispatcher = notificationDispatcher;
+        this.loanLedger = new LoanLedger(LoanLedger.DEFAULT_LOAN_PERIOD_MILLIS, clock);
+    }
 
 
+    // Every mutation is journaled before it is applied, so a failed append leaves the inventory untouched.
     protected void addBook(Book book, int quantity) {
-        booksAvailable.put(book, quantity);
+        mutate(book, () -> {
+            journal(journal -> journal.recordAddBook(book, quantity));
+            stock(book, quantity);
+            return null;
+        });
+    }
+
+    protected void addCopies(Book book, int quantity) {
+        mutate(book, () -> {
+            journal(journal -> journal.recordAddCopies(book, quantity));
+            stock(book, booksAvailable.get(book.getIsbn(), 0) + quantity);
+            return null;
+        });
+    }
+
+    // The stripes are taken in ascending order and held until the whole batch is published as one snapshot.
+    protected void addCopies(List<Book> books, int[] quantities) {
+        Integer[] order = new Integer[books.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> locks.stripe(books.get(i).getIsbn())));
+        journalLock.readLock().lock();
+        List<ReentrantLock> held = new ArrayList<>();
+        List<UnaryOperator<InventorySnapshot>> changes = new ArrayList<>();
+        snapshotChanges.set(changes);
+        try {
+            for (int index : order) {
+                Book book = books.get(index);
+                ReentrantLock lock = lockFor(book);
+                if (held.isEmpty() || held.get(held.size() - 1) != lock) {
+                    lock.lock();
+                    held.add(lock);
+                }
+                int quantity = quantities[index];
+                journal(recorder -> recorder.recordAddCopies(book, quantity));
+                stock(book, booksAvailable.get(book.getIsbn(), 0) + quantity);
+            }
+        } finally {
+            snapshotChanges.remove();
+            publish(changes);
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+            journalLock.readLock().unlock();
+        }
     }
 
     protected void removeBook(Book book) {
-        booksAvailable.remove(book);
+        mutate(book, () -> {
+            if (!booksAvailable.containsKey(book.getIsbn())) {
+                return null;
+            }
+            journal(journal -> journal.recordRemoveBook(book));
+            Lock filterLock = stockFilter.getUpdateLock();
+            filterLock.lock();
+            try {
+                booksAvailable.remove(book.getIsbn());
+                stockFilter.remove(book.getIsbn());
+            } finally {
+                filterLock.unlock();
+            }
+            record(snapshot -> snapshot.without(book.getIsbn()));
+            Book canonical = bookRegistry.register(book);
+            searchIndex.removeBook(canonical);
+            for (StockObserver observer : stockObservers) {
+                observer.onBookRemoved(canonical);
+            }
+            return null;
+        });
     }
 
     protected int getQuantity(Book book) {
-        return booksAvailable.get(book);
+        return booksAvailable.get(book.getIsbn(), 0);
     }
 
     protected void updateQuantity(Book book, int quantity) {
-        booksAvailable.put(book, quantity);
+        mutate(book, () -> {
+            journal(journal -> journal.recordUpdateQuantity(book, quantity));
+            stock(book, quantity);
+            return null;
+        });
+    }
+
+    private void stock(Book book, int quantity) {
+        boolean isNew = !booksAvailable.containsKey(book.getIsbn());
+        setQuantity(book, quantity);
+        if (isNew) {
+            searchIndex.addBook(bookRegistry.register(book));
+        }
+    }
+
+    private void setQuantity(Book book, int quantity) {
+        Lock filterLock = stockFilter.getUpdateLock();
+        filterLock.lock();
+        try {
+            if (!booksAvailable.containsKey(book.getIsbn())) {
+                stockFilter.add(book.getIsbn());
+            }
+            booksAvailable.put(book.getIsbn(), quantity);
+        } finally {
+            filterLock.unlock();
+        }
+        stockFilter.growIfNeeded(booksAvailable);
+        Book canonical = bookRegistry.register(book);
+        record(snapshot -> snapshot.with(canonical, quantity));
+        for (StockObserver observer : stockObservers) {
+            observer.onStockChanged(canonical, quantity);
+        }
+    }
+
+    protected boolean withdrawCopies(Book book, int quantity, int targetBranchId) {
+        return mutate(book, () -> {
+            int available = booksAvailable.get(book.getIsbn(), 0);
+            if (available <= 0 || available < quantity) {
+                return false;
+            }
+            journal(journal -> journal.recordTransfer(book, quantity, targetBranchId));
+            setQuantity(book, available - quantity);
+            return true;
+        });
+    }
+
+    // The journal read lock is taken even while no journal is attached: attachJournal() may run in between, and
+    // the mutation must then either finish before the journal's snapshot or be appended to it, never both.
+    private <T> T mutate(Book book, Supplier<T> mutation) {
+        journalLock.readLock().lock();
+        ReentrantLock lock = lockFor(book);
+        lock.lock();
+        List<UnaryOperator<InventorySnapshot>> changes = snapshotChanges.get();
+        boolean ownsBatch = changes == null;
+        if (ownsBatch) {
+            changes = new ArrayList<>();
+            snapshotChanges.set(changes);
+        }
+        try {
+            return mutation.get();
+        } finally {
+            if (ownsBatch) {
+                snapshotChanges.remove();
+                publish(changes);
+            }
+            lock.unlock();
+            journalLock.readLock().unlock();
+        }
+    }
+
+    private void record(UnaryOperator<InventorySnapshot> change) {
+        List<UnaryOperator<InventorySnapshot>> changes = snapshotChanges.get();
+        if (changes != null) {
+            changes.add(change);
+        } else {
+            publish(List.of(change));
+        }
+    }
+
+    // Writers of other stripes may publish concurrently; on a lost race the batch is replayed on the newer
+    // snapshot. Changes of one ISBN are published under its stripe lock, so they never overtake each other.
+    private void publish(List<UnaryOperator<InventorySnapshot>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        while (true) {
+            InventorySnapshot current = snapshot.get();
+            InventorySnapshot next = current;
+            for (UnaryOperator<InventorySnapshot> change : changes) {
+                next = change.apply(next);
+            }
+            if (snapshot.compareAndSet(current, next.nextVersion(current.getVersion() + 1))) {
+                return;
+            }
+        }
+    }
+
+    public InventorySnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    private void journal(Consumer<InventoryJournal> record) {
+        InventoryJournal journal = this.journal;
+        if (journal != null) {
+            record.accept(journal);
+        }
+    }
+
+    protected void attachJournal(InventoryJournal journal) {
+        journalLock.writeLock().lock();
+        try {
+            this.journal = journal;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    // Waits for in-flight mutations, so none of them can append to the journal once this returns.
+    protected void detachJournal(InventoryJournal journal) {
+        journalLock.writeLock().lock();
+        try {
+            if (this.journal == journal) {
+                this.journal = null;
+            }
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    protected InventoryState captureState() {
+        journalLock.writeLock().lock();
+        try {
+            InventoryState state = new InventoryState();
+            booksAvailable.forEach((isbn, quantity) -> state.addStock(bookRegistry.getBook(isbn), quantity));
+            loanLedger.forEach(state::addLoan);
+            reservations.forEach(state::addReservation);
+            return state;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    protected ReentrantReadWriteLock getJournalLock() {
+        return journalLock;
     }
 
     protected boolean containsBook(Book book) {
-        return booksAvailable.containsKey(book);
+        return booksAvailable.containsKey(book.getIsbn());
+    }
+
+    // False means this branch definitely does not stock the book; true still needs a look at the stock.
+    public boolean mightContain(Book book) {
+        return stockFilter.mightContain(book.getIsbn());
     }
 
     protected boolean isAvailable(Book book) {
-        return booksAvailable.get(book) > 0;
+        return booksAvailable.get(book.getIsbn(), 0) > 0;
+    }
+
+    private ReentrantLock lockFor(Book book) {
+        return locks.lockFor(book.getIsbn());
+    }
+
+    protected ReentrantLock getStockLock(long isbn) {
+        return locks.lockFor(isbn);
+    }
+
+    protected int getStockStripe(long isbn) {
+        return locks.stripe(isbn);
     }
 
     private void displayBook(Book book) {
-        logger.info("\tTitle: {}\t Author: {}\t Quantity: {}", book.getTitle(), book.getAuthor(), booksAvailable.get(book));
+        displayBook(book, booksAvailable.get(book.getIsbn(), 0));
+    }
+
+    private void displayBook(Book book, int quantity) {
+        logger.info("\tTitle: {}\t Author: {}\t Quantity: {}", book.getTitle(), book.getAuthor(), quantity);
     }
 
     protected void displayAllBooks() {
-        for(Map.Entry<Book, Integer> entry : booksAvailable.entrySet()) {
-            displayBook(entry.getKey());
-        }
+        booksAvailable.forEach((isbn, quantity) -> displayBook(bookRegistry.getBook(isbn), quantity));
     }
 
     protected boolean searchBookByTitle(String title) {
-        boolean isFound = false;
-        for(Map.Entry<Book, Integer> entry : booksAvailable.entrySet()) {
-            if(entry.getKey().getTitle().equalsIgnoreCase(title)) {
-                isFound = true;
-                displayBook(entry.getKey());
-            }
-        }
-        return isFound;
+        return displayBooks(findBooksByTitle(title));
     }
 
     protected boolean searchBookByAuthor(String author) {
-        boolean isFound = false;
-        for(Map.Entry<Book, Integer> entry : booksAvailable.entrySet()) {
-            if(entry.getKey().getAuthor().equalsIgnoreCase(author)) {
-                isFound = true;
-                displayBook(entry.getKey());
-            }
-        }
-        return isFound;
+        return displayBooks(findBooksByAuthor(author));
     }
 
     protected boolean searchBookByIsbn(String isbn) {
-        boolean isFound = false;
-        for(Map.Entry<Book, Integer> entry : booksAvailable.entrySet()) {
-            if(String.valueOf(entry.getKey().getIsbn()).equals(isbn)) {
-                isFound = true;
-                displayBook(entry.getKey());
-            }
+        Book book = findBookByIsbn(isbn);
+        if (book == null) {
+            return false;
+        }
+        displayBook(book);
+        return true;
+    }
+
+    protected boolean searchBookFuzzy(String parameter) {
+        return displayBooks(fuzzyFindBooks(parameter, FUZZY_SEARCH_DISTANCE));
+    }
+
+    private boolean displayBooks(Collection<Book> books) {
+        for (Book book : books) {
+            displayBook(book);
         }
-        return isFound;
+        return !books.isEmpty();
+    }
+
+    public List<Book> fuzzyFindBooksByTitle(String title, int maxDistance) {
+        return searchIndex.fuzzyFindByTitle(title, maxDistance, FUZZY_SEARCH_LIMIT);
+    }
+
+    public List<Book> fuzzyFindBooksByAuthor(String author, int maxDistance) {
+        return searchIndex.fuzzyFindByAuthor(author, maxDistance, FUZZY_SEARCH_LIMIT);
+    }
+
+    public List<Book> fuzzyFindBooks(String parameter, int maxDistance) {
+        return searchIndex.fuzzyFind(parameter, maxDistance, FUZZY_SEARCH_LIMIT);
     }
 
-    protected void checkoutBook(Book book) {
-        booksAvailable.put(book, booksAvailable.get(book) - 1);
+    public Set<Book> findBooksByTitle(String title) {
+        return searchIndex.findByTitle(title);
     }
 
-    protected void returnBook(Token token) {
-        booksBorrowed.remove(token);
-        booksAvailable.put(token.getBook(), booksAvailable.getOrDefault(token.getBook(),0) + 1);
+    public Set<Book> findBooksByTitleKeyword(String keyword) {
+        return searchIndex.findByTitleKeyword(keyword);
     }
 
-    protected Token issueToken(Book book, Patron patron) {
-        Token token = new Token(patron, book);
-        booksBorrowed.add(token);
-        return token;
+    public Set<Book> findBooksByAuthor(String author) {
+        return searchIndex.findByAuthor(author);
+    }
+
+    public Book findBookByIsbn(long isbn) {
+        return booksAvailable.containsKey(isbn) ? bookRegistry.getBook(isbn) : null;
+    }
+
+    private Book findBookByIsbn(String isbn) {
+        try {
+            return findBookByIsbn(Long.parseLong(isbn.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Set<Book> findBooks(String parameter) {
+        Set<Book> books = new HashSet<>(findBooksByTitle(parameter));
+        books.addAll(findBooksByAuthor(parameter));
+        Book book = findBookByIsbn(parameter);
+        if (book != null) {
+            books.add(book);
+        }
+        return books;
+    }
+
+    protected Token checkoutBook(Book book, Patron patron) {
+        return mutate(book, () -> {
+            int available = booksAvailable.get(book.getIsbn(), 0);
+            if (available <= 0) {
+                return null;
+            }
+            Token token = loanLedger.newToken(patron, book);
+            journal(journal -> journal.recordCheckout(token));
+            setQuantity(book, available - 1);
+            loanLedger.open(token);
+            return token;
+        });
+    }
+
+    protected void restoreCheckout(Token token) {
+        mutate(token.getBook(), () -> {
+            setQuantity(token.getBook(), booksAvailable.get(token.getBook().getIsbn(), 0) - 1);
+            loanLedger.restore(token);
+            return null;
+        });
+    }
+
+    protected void restoreLoan(Token token) {
+        mutate(token.getBook(), () -> {
+            loanLedger.restore(token);
+            return null;
+        });
+    }
+
+    protected boolean returnBook(Token token) {
+        return mutate(token.getBook(), () -> {
+            if (!loanLedger.contains(token)) {
+                return false;
+            }
+            journal(journal -> journal.recordReturn(token));
+            loanLedger.close(token);
+            stock(token.getBook(), booksAvailable.get(token.getBook().getIsbn(), 0) + 1);
+            return true;
+        });
+    }
+
+    protected Set<Token> getBorrowedTokens() {
+        Set<Token> tokens = new HashSet<>();
+        loanLedger.forEach(tokens::add);
+        return tokens;
     }
 
     protected boolean hasToken(Token token) {
-        return booksBorrowed.contains(token);
+        return loanLedger.contains(token);
+    }
+
+    public int getLoanCount() {
+        return loanLedger.size();
+    }
+
+    public List<Token> findLoansDueBefore(long epochMillis) {
+        return loanLedger.findDueBefore(epochMillis);
     }
 
     protected void displayBorrowedBooks() {
-        for(Token token : booksBorrowed) {
-            logger.info("\tBook: {}\t Patron: {}\t Issue Date: {}", token.getBook().getTitle(), token.getPatron().getPatronName(), token.getIssueDate());
-        }
+        loanLedger.stream().forEach(token ->
+                logger.info("\tBook: {}\t Patron: {}\t Issue Date: {}\t Due Date: {}", token.getBook().getTitle(), token.getPatron().getPatronName(), token.getIssueDate(), token.getDueDate()));
     }
 
     public Set<Book> getAvailableBooks() {
-        Set<Book> books = new HashSet<>();
+        return snapshot.get().getAvailableBooks();
+    }
+
+    // Walks the snapshot current when the query starts, so concurrent adds and removes can neither skip a book
+    // nor return it twice; availability is judged against the same snapshot. The live search index is not
+    // consulted, so an author query walks the whole snapshot too, normalizing each distinct author once.
+    public Stream<Book> queryBooks(BookQuery query) {
+        InventorySnapshot view = snapshot.get();
+        String author = query.getAuthor() == null ? null : SearchIndex.normalize(query.getAuthor());
+        Map<Integer, Boolean> authorMatches = new HashMap<>();
+        return view.streamBooks().filter(book -> (author == null
+                || authorMatches.computeIfAbsent(book.getAuthorCode(), code -> author.equals(SearchIndex.normalize(book.getAuthor()))))
+                && (!query.isAvailableOnly() || view.isAvailable(book)) && query.matches(book));
+    }
+
+    public Stream<Token> queryLoans() {
+        return loanLedger.stream();
+    }
 
-        for (Map.Entry<Book, Integer> entry : booksAvailable.entrySet()) {
-            if(entry.getValue()>0) books.add(entry.getKey());
+    public void addStockObserver(StockObserver observer) {
+        stockObservers.add(observer);
+        List<Long> isbns = new ArrayList<>();
+        booksAvailable.forEach((isbn, quantity) -> isbns.add(isbn));
+        for (long isbn : isbns) {
+            ReentrantLock lock = locks.lockFor(isbn);
+            lock.lock();
+            try {
+                if (booksAvailable.containsKey(isbn)) {
+                    observer.onStockChanged(bookRegistry.getBook(isbn), booksAvailable.get(isbn, 0));
+                }
+            } finally {
+                lock.unlock();
+            }
         }
-        return books;
+    }
+
+    public void removeStockObserver(StockObserver observer) {
+        stockObservers.remove(observer);
     }
 
     protected void removeObserver(Book book, Patron patron) {
-        reservations.removeObserver(book, patron);
+        mutate(book, () -> {
+            journal(journal -> journal.recordUnsubscribe(book, patron));
+            reservations.removeObserver(book, patron);
+            return null;
+        });
     }
 
     protected void addObserver(Book book, Patron patron) {
-        reservations.addObserver(patron, book);
+        mutate(book, () -> {
+            journal(journal -> journal.recordSubscribe(book, patron));
+            reservations.addObserver(patron, book);
+            return null;
+        });
+    }
+
+    protected int getWaitlistSize(Book book) {
+        return reservations.getWaitlistSize(book);
+    }
+
+    protected void forEachWaitlist(BiConsumer<Book, Integer> consumer) {
+        reservations.forEach((book, patrons) -> consumer.accept(book, patrons.size()));
     }
 
     protected void notifyObservers(Book book, boolean isAvailable, Branch branch) {
-        reservations.notifyObservers(book, isAvailable, branch);
+        notificationDispatcher.dispatch(reservations, book, isAvailable, branch);
     }
 }
@@ -0,0 +1,617 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookBuilder;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+
+// Append-only journal of Inventory mutations written through memory-mapped segments.
+// Appends only copy bytes into the mapping; a background flusher forces dirty pages (group commit).
+// Snapshots rotate the journal so that older segments can be deleted once the snapshot is durable.
+public class InventoryJournal implements Closeable {
+    private static final Logger logger = LogManager.getLogger(InventoryJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final int SNAPSHOT_MAGIC = 0x4C4D5353;
+    private static final int RECORD_HEADER = 8;
+
+    private static final byte ADD_BOOK = 1;
+    private static final byte REMOVE_BOOK = 2;
+    private static final byte UPDATE_QUANTITY = 3;
+    private static final byte ADD_COPIES = 4;
+    private static final byte CHECKOUT = 5;
+    private static final byte RETURN = 6;
+    private static final byte TRANSFER = 7;
+    private static final byte SUBSCRIBE = 8;
+    private static final byte UNSUBSCRIBE = 9;
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5;
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = 60_000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalMillis;
+    private final long snapshotIntervalMillis;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer scratch = ByteBuffer.allocate(512);
+
+    private ScheduledExecutorService scheduler;
+    private Inventory inventory;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private long segmentStartSequence;
+    private volatile long lastSequence;
+    private volatile long durableSequence;
+    private volatile long snapshotSequence;
+    private volatile boolean closed;
+
+    public InventoryJournal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_SNAPSHOT_INTERVAL_MILLIS);
+    }
+
+    public InventoryJournal(Path directory, int segmentSize, long flushIntervalMillis, long snapshotIntervalMillis) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+    }
+
+    protected void recover(Inventory inventory, IntFunction<Patron> patronResolver) throws IOException {
+        Files.createDirectories(directory);
+        Map<Long, Token> loans = new HashMap<>();
+        long sequence = loadSnapshot(inventory, patronResolver, loans);
+        snapshotSequence = sequence;
+        int replayed = 0;
+        for (Path segmentPath : listSegments()) {
+            try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                ByteBuffer record;
+                while ((record = nextRecord(buffer)) != null) {
+                    long recordSequence = record.getLong();
+                    if (recordSequence <= sequence) {
+                        continue;
+                    }
+                    replay(record, inventory, patronResolver, loans);
+                    sequence = recordSequence;
+                    replayed++;
+                }
+            }
+        }
+        lastSequence = sequence;
+        durableSequence = sequence;
+        logger.info("Recovered inventory from {} (snapshot sequence {}, {} journal record(s) replayed)", directory, snapshotSequence, replayed);
+
+        this.inventory = inventory;
+        openSegment(sequence + 1);
+        inventory.attachJournal(this);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-journal-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::periodicSnapshot, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    protected void recordAddBook(Book book, int quantity) {
+        append(ADD_BOOK, buffer -> {
+            writeBook(buffer, book);
+            buffer.putInt(quantity);
+        });
+    }
+
+    protected void recordAddCopies(Book book, int quantity) {
+        append(ADD_COPIES, buffer -> {
+            writeBook(buffer, book);
+            buffer.putInt(quantity);
+        });
+    }
+
+    protected void recordUpdateQuantity(Book book, int quantity) {
+        append(UPDATE_QUANTITY, buffer -> {
+            writeBook(buffer, book);
+            buffer.putInt(quantity);
+        });
+    }
+
+    protected void recordRemoveBook(Book book) {
+        append(REMOVE_BOOK, buffer -> buffer.putLong(book.getIsbn()));
+    }
+
+    protected void recordCheckout(Token token) {
+        append(CHECKOUT, buffer -> {
+            buffer.putLong(token.getBook().getIsbn());
+            buffer.putInt(token.getPatron().getPatronId());
+            buffer.putLong(token.getTokenId());
+            buffer.putLong(token.getIssuedAt());
+            buffer.putLong(token.getDueAt());
+        });
+    }
+
+    protected void recordReturn(Token token) {
+        append(RETURN, buffer -> {
+            buffer.putLong(token.getBook().getIsbn());
+            buffer.putLong(token.getTokenId());
+        });
+    }
+
+    protected void recordTransfer(Book book, int quantity, int targetBranchId) {
+        append(TRANSFER, buffer -> {
+            buffer.putLong(book.getIsbn());
+            buffer.putInt(quantity);
+            buffer.putInt(targetBranchId);
+        });
+    }
+
+    protected void recordSubscribe(Book book, Patron patron) {
+        append(SUBSCRIBE, buffer -> {
+            buffer.putLong(book.getIsbn());
+            buffer.putInt(patron.getPatronId());
+        });
+    }
+
+    protected void recordUnsubscribe(Book book, Patron patron) {
+        append(UNSUBSCRIBE, buffer -> {
+            buffer.putLong(book.getIsbn());
+            buffer.putInt(patron.getPatronId());
+        });
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+
+    public void sync() {
+        flush();
+    }
+
+    public void snapshot() throws IOException {
+        InventoryState state;
+        long sequence;
+        long retainFrom;
+        inventory.getJournalLock().writeLock().lock();
+        try {
+            appendLock.lock();
+            try {
+                sequence = lastSequence;
+                rotateSegment(sequence + 1);
+                retainFrom = segmentStartSequence;
+            } finally {
+                appendLock.unlock();
+            }
+            state = inventory.captureState();
+        } finally {
+            inventory.getJournalLock().writeLock().unlock();
+        }
+        writeSnapshot(state, sequence);
+        snapshotSequence = sequence;
+        for (Path segmentPath : listSegments()) {
+            if (segmentStart(segmentPath) < retainFrom) {
+                Files.deleteIfExists(segmentPath);
+            }
+        }
+    }
+
+    // Detaches from the inventory first: later mutations are applied in memory only instead of failing.
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (inventory != null) {
+            inventory.detachJournal(this);
+        }
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        appendLock.lock();
+        try {
+            if (segment != null) {
+                segment.force();
+                durableSequence = lastSequence;
+                segmentChannel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private interface RecordWriter {
+        void write(ByteBuffer buffer);
+    }
+
+    private void append(byte type, RecordWriter writer) {
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Inventory journal is closed");
+            }
+            ByteBuffer body = encode(type, lastSequence + 1, writer);
+            if (segment.remaining() < RECORD_HEADER + body.remaining() + RECORD_HEADER) {
+                rotateSegment(lastSequence + 1);
+            }
+            crc.reset();
+            crc.update(body.array(), 0, body.limit());
+            segment.putInt(body.limit());
+            segment.putInt((int) crc.getValue());
+            segment.put(body);
+            lastSequence++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to inventory journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private ByteBuffer encode(byte type, long sequence, RecordWriter writer) {
+        while (true) {
+            scratch.clear();
+            try {
+                scratch.putLong(sequence);
+                scratch.put(type);
+                writer.write(scratch);
+                scratch.flip();
+                return scratch;
+            } catch (java.nio.BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private void flush() {
+        MappedByteBuffer current;
+        long sequence;
+        appendLock.lock();
+        try {
+            if (closed || segment == null || durableSequence == lastSequence) {
+                return;
+            }
+            current = segment;
+            sequence = lastSequence;
+        } finally {
+            appendLock.unlock();
+        }
+        current.force();
+        if (sequence > durableSequence) {
+            durableSequence = sequence;
+        }
+    }
+
+    private void periodicSnapshot() {
+        if (closed || lastSequence == snapshotSequence) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write inventory snapshot to {}", directory, e);
+        }
+    }
+
+    private void openSegment(long startSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, startSequence, SEGMENT_SUFFIX));
+        segmentChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentStartSequence = startSequence;
+    }
+
+    private void rotateSegment(long startSequence) throws IOException {
+        if (segment != null) {
+            segment.force();
+            durableSequence = lastSequence;
+            segmentChannel.close();
+        }
+        openSegment(startSequence);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        segments.sort(Comparator.comparingLong(InventoryJournal::segmentStart));
+        return segments;
+    }
+
+    private static long segmentStart(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private ByteBuffer nextRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < RECORD_HEADER) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        buffer.get(body);
+        crc.reset();
+        crc.update(body, 0, length);
+        if ((int) crc.getValue() != checksum) {
+            logger.warn("Discarding torn inventory journal record in {}", directory);
+            return null;
+        }
+        return ByteBuffer.wrap(body);
+    }
+
+    private void replay(ByteBuffer record, Inventory inventory, IntFunction<Patron> patronResolver, Map<Long, Token> loans) {
+        byte type = record.get();
+        switch (type) {
+            case ADD_BOOK: {
+                Book book = readBook(record);
+                int quantity = record.getInt();
+                if (book != null) {
+                    inventory.addBook(book, quantity);
+                }
+                break;
+            }
+            case ADD_COPIES: {
+                Book book = readBook(record);
+                int quantity = record.getInt();
+                if (book != null) {
+                    inventory.addCopies(book, quantity);
+                }
+                break;
+            }
+            case UPDATE_QUANTITY: {
+                Book book = readBook(record);
+                int quantity = record.getInt();
+                if (book != null) {
+                    inventory.updateQuantity(book, quantity);
+                }
+                break;
+            }
+            case REMOVE_BOOK: {
+                Book book = BookRegistry.getInstance().getBook(record.getLong());
+                if (book != null) {
+                    inventory.removeBook(book);
+                }
+                break;
+            }
+            case CHECKOUT: {
+                Book book = BookRegistry.getInstance().getBook(record.getLong());
+                Patron patron = patronResolver.apply(record.getInt());
+                long tokenId = record.getLong();
+                long issuedAt = record.getLong();
+                long dueAt = record.getLong();
+                if (book == null || patron == null) {
+                    logger.warn("Skipping journal checkout for unknown book or patron");
+                    break;
+                }
+                Token token = new Token(tokenId, patron, book, issuedAt, dueAt);
+                inventory.restoreCheckout(token);
+                patron.borrowBook(book, token);
+                loans.put(tokenId, token);
+                break;
+            }
+            case RETURN: {
+                record.getLong();
+                Token token = loans.remove(record.getLong());
+                if (token != null && inventory.returnBook(token)) {
+                    token.getPatron().returnBook(token.getBook());
+                }
+                break;
+            }
+            case TRANSFER: {
+                Book book = BookRegistry.getInstance().getBook(record.getLong());
+                int quantity = record.getInt();
+                int targetBranchId = record.getInt();
+                if (book != null) {
+                    inventory.withdrawCopies(book, quantity, targetBranchId);
+                }
+                break;
+            }
+            case SUBSCRIBE:
+            case UNSUBSCRIBE: {
+                Book book = BookRegistry.getInstance().getBook(record.getLong());
+                Patron patron = patronResolver.apply(record.getInt());
+                if (book == null || patron == null) {
+                    break;
+                }
+                if (type == SUBSCRIBE) {
+                    inventory.addObserver(book, patron);
+                } else {
+                    inventory.removeObserver(book, patron);
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown inventory journal record type " + type);
+        }
+    }
+
+    private long loadSnapshot(Inventory inventory, IntFunction<Patron> patronResolver, Map<Long, Token> loans) throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Invalid inventory snapshot " + path);
+            }
+            long sequence = in.readLong();
+            int books = in.readInt();
+            for (int i = 0; i < books; i++) {
+                Book book = readBook(in);
+                int quantity = in.readInt();
+                if (book != null) {
+                    inventory.addBook(book, quantity);
+                }
+            }
+            int loanCount = in.readInt();
+            for (int i = 0; i < loanCount; i++) {
+                Book book = BookRegistry.getInstance().getBook(in.readLong());
+                Patron patron = patronResolver.apply(in.readInt());
+                long tokenId = in.readLong();
+                long issuedAt = in.readLong();
+                long dueAt = in.readLong();
+                if (book == null || patron == null) {
+                    continue;
+                }
+                Token token = new Token(tokenId, patron, book, issuedAt, dueAt);
+                inventory.restoreLoan(token);
+                patron.borrowBook(book, token);
+                loans.put(tokenId, token);
+            }
+            int reservationCount = in.readInt();
+            for (int i = 0; i < reservationCount; i++) {
+                Book book = BookRegistry.getInstance().getBook(in.readLong());
+                int patrons = in.readInt();
+                for (int j = 0; j < patrons; j++) {
+                    Patron patron = patronResolver.apply(in.readInt());
+                    if (book != null && patron != null) {
+                        inventory.addObserver(book, patron);
+                    }
+                }
+            }
+            return sequence;
+        }
+    }
+
+    private void writeSnapshot(InventoryState state, long sequence) throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(state.getBooks().size());
+            for (int i = 0; i < state.getBooks().size(); i++) {
+                writeBook(out, state.getBooks().get(i));
+                out.writeInt(state.getQuantity(i));
+            }
+            out.writeInt(state.getLoans().size());
+            for (Token token : state.getLoans()) {
+                out.writeLong(token.getBook().getIsbn());
+                out.writeInt(token.getPatron().getPatronId());
+                out.writeLong(token.getTokenId());
+                out.writeLong(token.getIssuedAt());
+                out.writeLong(token.getDueAt());
+            }
+            out.writeInt(state.getReservations().size());
+            for (Map.Entry<Book, List<Patron>> entry : state.getReservations().entrySet()) {
+                out.writeLong(entry.getKey().getIsbn());
+                out.writeInt(entry.getValue().size());
+                for (Patron patron : entry.getValue()) {
+                    out.writeInt(patron.getPatronId());
+                }
+            }
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeBook(ByteBuffer buffer, Book book) {
+        buffer.putLong(book.getIsbn());
+        buffer.putInt(book.getPublicationYear());
+        writeString(buffer, book.getTitle());
+        writeString(buffer, book.getAuthor());
+        writeString(buffer, book.getGenre());
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private Book readBook(ByteBuffer buffer) {
+        long isbn = buffer.getLong();
+        int publicationYear = buffer.getInt();
+        return buildBook(isbn, publicationYear, readString(buffer), readString(buffer), readString(buffer));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBook(DataOutputStream out, Book book) throws IOException {
+        out.writeLong(book.getIsbn());
+        out.writeInt(book.getPublicationYear());
+        writeString(out, book.getTitle());
+        writeString(out, book.getAuthor());
+        writeString(out, book.getGenre());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private Book readBook(DataInputStream in) throws IOException {
+        long isbn = in.readLong();
+        int publicationYear = in.readInt();
+        return buildBook(isbn, publicationYear, readString(in), readString(in), readString(in));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // Null, with a warning, when the stored fields no longer make a valid book.
+    private Book buildBook(long isbn, int publicationYear, String title, String author, String genre) {
+        Book book = BookRegistry.getInstance().getBook(isbn);
+        if (book != null) {
+            return book;
+        }
+        book = new BookBuilder()
+                .setIsbn(isbn)
+                .setPublicationYear(publicationYear)
+                .setTitle(title)
+                .setAuthor(author)
+                .setGenre(genre)
+                .build();
+        if (book == null) {
+            logger.warn("Skipping invalid book {} in inventory journal {}", isbn, directory);
+            return null;
+        }
+        return BookRegistry.getInstance().register(book);
+    }
+}
@@ -0,0 +1,335 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+
+import java.util.*;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Immutable, versioned view of a branch's stock. Backed by a persistent hash trie (32-way, path copying),
+// so publishing a change copies only the nodes on the path to the changed ISBN and readers never lock.
+public class InventorySnapshot {
+    protected static final InventorySnapshot EMPTY = new InventorySnapshot(null, 0, 0, 0, 0);
+    // Marks a pending snapshot whose set of available books changed; nextVersion() resolves it.
+    private static final long AVAILABILITY_CHANGED = -1;
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final int size;
+    private final int availableCount;
+    private final long version;
+    private final long availabilityVersion;
+    private final Set<Book> availableBooks = new AvailableBooks();
+
+    private static final class Leaf {
+        private final long hash;
+        private final Book book;
+        private final int quantity;
+
+        private Leaf(long hash, Book book, int quantity) {
+            this.hash = hash;
+            this.book = book;
+            this.quantity = quantity;
+        }
+    }
+
+    private static final class Node {
+        private final int bitmap;
+        private final Object[] slots;
+
+        private Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    private InventorySnapshot(Node root, int size, int availableCount, long version, long availabilityVersion) {
+        this.root = root;
+        this.size = size;
+        this.availableCount = availableCount;
+        this.version = version;
+        this.availabilityVersion = availabilityVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // The version that last changed which books are available; quantity changes that keep a book on the shelf
+    // leave it untouched, so anything derived from getAvailableBooks() stays valid while it is unchanged.
+    public long getAvailabilityVersion() {
+        return availabilityVersion;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getAvailableCount() {
+        return availableCount;
+    }
+
+    public boolean containsBook(Book book) {
+        return find(book.getIsbn()) != null;
+    }
+
+    public int getQuantity(Book book) {
+        Leaf leaf = find(book.getIsbn());
+        return leaf == null ? 0 : leaf.quantity;
+    }
+
+    public boolean isAvailable(Book book) {
+        return getQuantity(book) > 0;
+    }
+
+    // Unmodifiable view of the books with at least one copy on the shelf in this version.
+    public Set<Book> getAvailableBooks() {
+        return availableBooks;
+    }
+
+    public void forEach(ObjIntConsumer<Book> consumer) {
+        Iterator<Leaf> leaves = new LeafIterator(root);
+        while (leaves.hasNext()) {
+            Leaf leaf = leaves.next();
+            consumer.accept(leaf.book, leaf.quantity);
+        }
+    }
+
+    // Every stocked book of this version, including those with no copy on the shelf.
+    public Stream<Book> streamBooks() {
+        Iterator<Leaf> leaves = new LeafIterator(root);
+        Iterator<Book> books = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return leaves.hasNext();
+            }
+
+            @Override
+            public Book next() {
+                return leaves.next().book;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(books, size,
+                Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.IMMUTABLE), false);
+    }
+
+    protected InventorySnapshot with(Book book, int quantity) {
+        long hash = hash(book.getIsbn());
+        Leaf previous = find(book.getIsbn());
+        Leaf leaf = new Leaf(hash, book, quantity);
+        Node updated = root == null ? new Node(bit(hash, 0), new Object[]{leaf}) : put(root, leaf, 0);
+        boolean wasAvailable = previous != null && previous.quantity > 0;
+        int available = availableCount - (wasAvailable ? 1 : 0) + (quantity > 0 ? 1 : 0);
+        return new InventorySnapshot(updated, previous == null ? size + 1 : size, available, version,
+                wasAvailable == quantity > 0 ? availabilityVersion : AVAILABILITY_CHANGED);
+    }
+
+    protected InventorySnapshot without(long isbn) {
+        Leaf previous = find(isbn);
+        if (previous == null) {
+            return this;
+        }
+        Node updated = (Node) remove(root, previous.hash, 0);
+        return new InventorySnapshot(updated, size - 1, availableCount - (previous.quantity > 0 ? 1 : 0), version,
+                previous.quantity > 0 ? AVAILABILITY_CHANGED : availabilityVersion);
+    }
+
+    protected InventorySnapshot nextVersion(long version) {
+        return new InventorySnapshot(root, size, availableCount, version,
+                availabilityVersion == AVAILABILITY_CHANGED ? version : availabilityVersion);
+    }
+
+    private Leaf find(long isbn) {
+        long hash = hash(isbn);
+        Node node = root;
+        for (int shift = 0; node != null; shift += BITS) {
+            int bit = bit(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[index(node.bitmap, bit)];
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                return leaf.hash == hash ? leaf : null;
+            }
+            node = (Node) slot;
+        }
+        return null;
+    }
+
+    private static Node put(Node node, Leaf leaf, int shift) {
+        int bit = bit(leaf.hash, shift);
+        int index = index(node.bitmap, bit);
+        if ((node.bitmap & bit) == 0) {
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            slots[index] = leaf;
+            System.arraycopy(node.slots, index, slots, index + 1, node.slots.length - index);
+            return new Node(node.bitmap | bit, slots);
+        }
+        Object slot = node.slots[index];
+        Object replacement;
+        if (slot instanceof Node) {
+            replacement = put((Node) slot, leaf, shift + BITS);
+        } else if (((Leaf) slot).hash == leaf.hash) {
+            replacement = leaf;
+        } else {
+            replacement = merge((Leaf) slot, leaf, shift + BITS);
+        }
+        Object[] slots = node.slots.clone();
+        slots[index] = replacement;
+        return new Node(node.bitmap, slots);
+    }
+
+    // The hash is a bijection of the ISBN, so two different leaves always split before the bits run out.
+    private static Node merge(Leaf first, Leaf second, int shift) {
+        int firstBit = bit(first.hash, shift);
+        int secondBit = bit(second.hash, shift);
+        if (firstBit == secondBit) {
+            return new Node(firstBit, new Object[]{merge(first, second, shift + BITS)});
+        }
+        Object[] slots = Integer.compareUnsigned(firstBit, secondBit) < 0
+                ? new Object[]{first, second} : new Object[]{second, first};
+        return new Node(firstBit | secondBit, slots);
+    }
+
+    // Returns the replacement for node: null when it became empty, or its only leaf so that the trie
+    // stays as shallow as if that leaf had been inserted alone.
+    private static Object remove(Node node, long hash, int shift) {
+        int bit = bit(hash, shift);
+        int index = index(node.bitmap, bit);
+        Object slot = node.slots[index];
+        Object replacement = slot instanceof Leaf ? null : remove((Node) slot, hash, shift + BITS);
+        if (replacement == null) {
+            if (node.slots.length == 1) {
+                return null;
+            }
+            Object[] slots = new Object[node.slots.length - 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            System.arraycopy(node.slots, index + 1, slots, index, slots.length - index);
+            if (slots.length == 1 && slots[0] instanceof Leaf && shift > 0) {
+                return slots[0];
+            }
+            return new Node(node.bitmap & ~bit, slots);
+        }
+        if (replacement instanceof Leaf && node.slots.length == 1 && shift > 0) {
+            return replacement;
+        }
+        Object[] slots = node.slots.clone();
+        slots[index] = replacement;
+        return new Node(node.bitmap, slots);
+    }
+
+    private static int bit(long hash, int shift) {
+        return 1 << ((int) (hash >>> shift) & MASK);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    // Finalizer of SplitMix64: a bijection on longs that spreads sequential ISBNs over the trie.
+    private static long hash(long isbn) {
+        long hash = isbn;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static final class LeafIterator implements Iterator<Leaf> {
+        private final Deque<Object[]> slots = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Leaf next;
+
+        private LeafIterator(Node root) {
+            if (root != null) {
+                slots.push(root.slots);
+                positions.push(0);
+            }
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !slots.isEmpty()) {
+                Object[] current = slots.peek();
+                int position = positions.pop();
+                if (position == current.length) {
+                    slots.pop();
+                    continue;
+                }
+                positions.push(position + 1);
+                Object slot = current[position];
+                if (slot instanceof Leaf) {
+                    next = (Leaf) slot;
+                } else {
+                    slots.push(((Node) slot).slots);
+                    positions.push(0);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Leaf next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf leaf = next;
+            advance();
+            return leaf;
+        }
+    }
+
+    private final class AvailableBooks extends AbstractSet<Book> {
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Book && isAvailable((Book) o);
+        }
+
+        @Override
+        public int size() {
+            return availableCount;
+        }
+
+        @Override
+        public Iterator<Book> iterator() {
+            Iterator<Leaf> leaves = new LeafIterator(root);
+            return new Iterator<>() {
+                private Leaf next = nextAvailable();
+
+                private Leaf nextAvailable() {
+                    while (leaves.hasNext()) {
+                        Leaf leaf = leaves.next();
+                        if (leaf.quantity > 0) {
+                            return leaf;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Book next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Book book = next.book;
+                    next = nextAvailable();
+                    return book;
+                }
+            };
+        }
+    }
+}
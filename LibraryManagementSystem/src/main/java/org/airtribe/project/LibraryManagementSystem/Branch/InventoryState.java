@@ -0,0 +1,42 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+
+import java.util.*;
+
+class InventoryState {
+    private final List<Book> books = new ArrayList<>();
+    private final List<Integer> quantities = new ArrayList<>();
+    private final List<Token> loans = new ArrayList<>();
+    private final Map<Book, List<Patron>> reservations = new HashMap<>();
+
+    protected void addStock(Book book, int quantity) {
+        books.add(book);
+        quantities.add(quantity);
+    }
+
+    protected void addLoan(Token token) {
+        loans.add(token);
+    }
+
+    protected void addReservation(Book book, Collection<Patron> patrons) {
+        reservations.put(book, new ArrayList<>(patrons));
+    }
+
+    protected List<Book> getBooks() {
+        return books;
+    }
+
+    protected int getQuantity(int index) {
+        return quantities.get(index);
+    }
+
+    protected List<Token> getLoans() {
+        return loans;
+    }
+
+    protected Map<Book, List<Patron>> getReservations() {
+        return reservations;
+    }
+}
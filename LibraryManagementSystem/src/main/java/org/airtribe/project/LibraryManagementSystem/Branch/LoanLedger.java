@@ -0,0 +1,289 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Open loans stored as primitive columns (slot -> loan id, ISBN, patron id, issue and due epoch millis).
+// Loan ids are monotonic across the process; the due-date index is a sorted (dueAt, loanId) array pair
+// so that loans due before a given time are a binary search plus a prefix scan.
+class LoanLedger {
+    protected static final long DEFAULT_LOAN_PERIOD_MILLIS = TimeUnit.DAYS.toMillis(14);
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MIN_REMOVED_BEFORE_COMPACTION = 64;
+    private static final int STREAM_CHUNK_SIZE = 256;
+    private static final long FREE = 0L;
+    private static final AtomicLong nextLoanId = new AtomicLong(1);
+
+    private final BookRegistry bookRegistry = BookRegistry.getInstance();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap slotsByLoanId = new LongIntHashMap();
+    private final long loanPeriodMillis;
+    private final LongSupplier clock;
+
+    private long[] loanIds = new long[DEFAULT_CAPACITY];
+    private long[] isbns = new long[DEFAULT_CAPACITY];
+    private int[] patronIds = new int[DEFAULT_CAPACITY];
+    private long[] issuedAt = new long[DEFAULT_CAPACITY];
+    private long[] dueAt = new long[DEFAULT_CAPACITY];
+    private Patron[] patrons = new Patron[DEFAULT_CAPACITY];
+    private int[] freeSlots = new int[DEFAULT_CAPACITY];
+    private int freeCount;
+    private int slotCount;
+    private int size;
+
+    private long[] dueKeys = new long[DEFAULT_CAPACITY];
+    private long[] dueLoanIds = new long[DEFAULT_CAPACITY];
+    private int dueSize;
+    private int dueRemoved;
+
+    protected LoanLedger(long loanPeriodMillis, LongSupplier clock) {
+        this.loanPeriodMillis = loanPeriodMillis;
+        this.clock = clock;
+    }
+
+    // Allocates the loan id without opening the loan, so callers can journal it first.
+    protected Token newToken(Patron patron, Book book) {
+        long now = clock.getAsLong();
+        return new Token(nextLoanId.getAndIncrement(), patron, book, now, now + loanPeriodMillis);
+    }
+
+    protected void open(Token token) {
+        add(token);
+    }
+
+    protected void restore(Token token) {
+        nextLoanId.accumulateAndGet(token.getTokenId() + 1, Math::max);
+        add(token);
+    }
+
+    protected boolean close(Token token) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsByLoanId.get(token.getTokenId(), -1);
+            if (slot < 0 || isbns[slot] != token.getBook().getIsbn() || patronIds[slot] != token.getPatron().getPatronId()) {
+                return false;
+            }
+            slotsByLoanId.remove(token.getTokenId());
+            removeDue(dueAt[slot], token.getTokenId());
+            loanIds[slot] = FREE;
+            patrons[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+            }
+            freeSlots[freeCount++] = slot;
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    protected boolean contains(Token token) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsByLoanId.get(token.getTokenId(), -1);
+            return slot >= 0 && isbns[slot] == token.getBook().getIsbn() && patronIds[slot] == token.getPatron().getPatronId();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected void forEach(Consumer<Token> consumer) {
+        List<Token> tokens = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (loanIds[slot] != FREE) {
+                    tokens.add(toToken(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        tokens.forEach(consumer);
+    }
+
+    // Materializes tokens a chunk of slots at a time; loans opened or closed while streaming may or may not be seen.
+    protected Stream<Token> stream() {
+        Iterator<Token> iterator = new Iterator<>() {
+            private final List<Token> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            private int chunkIndex;
+            private int nextSlot;
+
+            @Override
+            public boolean hasNext() {
+                while (chunkIndex == chunk.size()) {
+                    chunk.clear();
+                    chunkIndex = 0;
+                    lock.readLock().lock();
+                    try {
+                        if (nextSlot >= slotCount) {
+                            return false;
+                        }
+                        int end = Math.min(slotCount, nextSlot + STREAM_CHUNK_SIZE);
+                        for (; nextSlot < end; nextSlot++) {
+                            if (loanIds[nextSlot] != FREE) {
+                                chunk.add(toToken(nextSlot));
+                            }
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Token next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.get(chunkIndex++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    protected List<Token> findDueBefore(long epochMillis) {
+        List<Token> tokens = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int end = lowerBound(epochMillis);
+            for (int i = 0; i < end; i++) {
+                if (dueLoanIds[i] != FREE) {
+                    tokens.add(toToken(slotsByLoanId.get(dueLoanIds[i], -1)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return tokens;
+    }
+
+    private void add(Token token) {
+        lock.writeLock().lock();
+        try {
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (slotCount == loanIds.length) {
+                    growSlots();
+                }
+                slot = slotCount++;
+            }
+            loanIds[slot] = token.getTokenId();
+            isbns[slot] = token.getBook().getIsbn();
+            patronIds[slot] = token.getPatron().getPatronId();
+            issuedAt[slot] = token.getIssuedAt();
+            dueAt[slot] = token.getDueAt();
+            patrons[slot] = token.getPatron();
+            slotsByLoanId.put(token.getTokenId(), slot);
+            addDue(token.getDueAt(), token.getTokenId());
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Token toToken(int slot) {
+        return new Token(loanIds[slot], patrons[slot], bookRegistry.getBook(isbns[slot]), issuedAt[slot], dueAt[slot]);
+    }
+
+    private void growSlots() {
+        int capacity = loanIds.length << 1;
+        loanIds = Arrays.copyOf(loanIds, capacity);
+        isbns = Arrays.copyOf(isbns, capacity);
+        patronIds = Arrays.copyOf(patronIds, capacity);
+        issuedAt = Arrays.copyOf(issuedAt, capacity);
+        dueAt = Arrays.copyOf(dueAt, capacity);
+        patrons = Arrays.copyOf(patrons, capacity);
+    }
+
+    // Loans are issued in time order with a fixed period, so inserts are almost always appends.
+    private void addDue(long due, long loanId) {
+        if (dueSize == dueKeys.length) {
+            dueKeys = Arrays.copyOf(dueKeys, dueSize << 1);
+            dueLoanIds = Arrays.copyOf(dueLoanIds, dueSize << 1);
+        }
+        int index = upperBound(due);
+        if (index < dueSize) {
+            System.arraycopy(dueKeys, index, dueKeys, index + 1, dueSize - index);
+            System.arraycopy(dueLoanIds, index, dueLoanIds, index + 1, dueSize - index);
+        }
+        dueKeys[index] = due;
+        dueLoanIds[index] = loanId;
+        dueSize++;
+    }
+
+    // Removed entries are tombstoned and compacted away once they make up half of the index.
+    private void removeDue(long due, long loanId) {
+        for (int i = lowerBound(due); i < dueSize && dueKeys[i] == due; i++) {
+            if (dueLoanIds[i] == loanId) {
+                dueLoanIds[i] = FREE;
+                dueRemoved++;
+                break;
+            }
+        }
+        if (dueRemoved >= MIN_REMOVED_BEFORE_COMPACTION && dueRemoved * 2 > dueSize) {
+            int kept = 0;
+            for (int i = 0; i < dueSize; i++) {
+                if (dueLoanIds[i] != FREE) {
+                    dueKeys[kept] = dueKeys[i];
+                    dueLoanIds[kept] = dueLoanIds[i];
+                    kept++;
+                }
+            }
+            dueSize = kept;
+            dueRemoved = 0;
+        }
+    }
+
+    private int lowerBound(long due) {
+        int low = 0;
+        int high = dueSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dueKeys[mid] < due) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(long due) {
+        int low = 0;
+        int high = dueSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dueKeys[mid] <= due) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,11 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+
+public interface LoanObserver {
+    default void onBookCheckedOut(Patron patron, Book book, Branch branch) {
+    }
+
+    void onBookReturned(Patron patron, Book book, Branch branch, boolean isFirstRead);
+}
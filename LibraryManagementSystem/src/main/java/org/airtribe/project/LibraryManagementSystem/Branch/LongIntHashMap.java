@@ -0,0 +1,242 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Open addressing (linear probing, backward shift deletion) map from long keys to int values.
+// Reads are optimistic, writes take the exclusive lock.
+class LongIntHashMap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final long EMPTY = 0L;
+
+    private final StampedLock lock = new StampedLock();
+
+    private Table table;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final int[] values;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+        }
+    }
+
+    protected LongIntHashMap() {
+        this.table = new Table(DEFAULT_CAPACITY);
+    }
+
+    protected int get(long key, int defaultValue) {
+        long stamp = lock.tryOptimisticRead();
+        int value = read(key, defaultValue);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+        stamp = lock.readLock();
+        try {
+            return read(key, defaultValue);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    protected boolean containsKey(long key) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = contains(key);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return contains(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    protected void put(long key, int value) {
+        long stamp = lock.writeLock();
+        try {
+            write(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    protected boolean putIfAbsent(long key, int value) {
+        long stamp = lock.writeLock();
+        try {
+            if (contains(key)) {
+                return false;
+            }
+            write(key, value);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    protected boolean remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            if (key == EMPTY) {
+                boolean removed = hasZeroKey;
+                hasZeroKey = false;
+                zeroValue = 0;
+                if (removed) {
+                    size--;
+                }
+                return removed;
+            }
+            int index = indexOf(table, key);
+            if (index < 0) {
+                return false;
+            }
+            shiftKeysBack(index);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    protected int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    protected void forEach(EntryConsumer consumer) {
+        long stamp = lock.readLock();
+        try {
+            if (hasZeroKey) {
+                consumer.accept(EMPTY, zeroValue);
+            }
+            long[] keys = table.keys;
+            int[] values = table.values;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int read(long key, int defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        Table table = this.table;
+        int index = indexOf(table, key);
+        return index < 0 ? defaultValue : table.values[index];
+    }
+
+    private boolean contains(long key) {
+        if (key == EMPTY) {
+            return hasZeroKey;
+        }
+        return indexOf(table, key) >= 0;
+    }
+
+    private static int indexOf(Table table, long key) {
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        for (int probes = 0; probes < keys.length; probes++) {
+            long current = keys[index];
+            if (current == key) {
+                return index;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void write(long key, int value) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                table.values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        table.values[index] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            resize(keys.length << 1);
+        }
+    }
+
+    private void shiftKeysBack(int index) {
+        long[] keys = table.keys;
+        int[] values = table.values;
+        int mask = keys.length - 1;
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = table.keys;
+        int[] oldValues = table.values;
+        Table resized = new Table(capacity);
+        long[] newKeys = resized.keys;
+        int[] newValues = resized.values;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == EMPTY) {
+                continue;
+            }
+            int index = mix(key) & mask;
+            while (newKeys[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            newKeys[index] = key;
+            newValues[index] = oldValues[i];
+        }
+        table = resized;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
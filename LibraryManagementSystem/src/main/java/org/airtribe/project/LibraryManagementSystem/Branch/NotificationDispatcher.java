@@ -0,0 +1,166 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class NotificationDispatcher {
+    private static final Logger logger = LogManager.getLogger(NotificationDispatcher.class);
+    private static final NotificationDispatcher defaultDispatcher = new NotificationDispatcher();
+
+    private final ExecutorService executor;
+    private final Map<Key, Notification> pending = new ConcurrentHashMap<>();
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder totalLagNanos = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+
+    public NotificationDispatcher() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static NotificationDispatcher getDefault() {
+        return defaultDispatcher;
+    }
+
+    protected void dispatch(Reservations reservations, Book book, boolean isAvailable, Branch branch) {
+        Key key = new Key(branch.getBranchId(), book.getIsbn());
+        enqueuedCount.increment();
+        boolean[] isQueued = new boolean[1];
+        pending.compute(key, (k, existing) -> {
+            if (existing == null) {
+                isQueued[0] = true;
+                return new Notification(reservations, book, isAvailable, branch, System.nanoTime());
+            }
+            coalescedCount.increment();
+            return new Notification(reservations, book, isAvailable, branch, existing.enqueuedAt);
+        });
+        if (isQueued[0]) {
+            try {
+                executor.execute(() -> deliver(key));
+            } catch (RejectedExecutionException e) {
+                // Shut down: drop the event rather than fail the caller, and free the key so later events
+                // for it are not coalesced into a delivery that will never run.
+                if (pending.remove(key) != null) {
+                    droppedCount.increment();
+                    logger.warn("Dropped notification for book {}: dispatcher is shut down", book.getTitle());
+                }
+            }
+        }
+    }
+
+    private void deliver(Key key) {
+        Notification notification = pending.remove(key);
+        if (notification == null) {
+            return;
+        }
+        long lag = System.nanoTime() - notification.enqueuedAt;
+        totalLagNanos.add(lag);
+        maxLagNanos.accumulateAndGet(lag, Math::max);
+        try {
+            notification.reservations.notifyObservers(notification.book, notification.isAvailable, notification.branch);
+        } catch (RuntimeException e) {
+            logger.error("Failed to deliver notification for book {}", notification.book.getTitle(), e);
+        }
+        deliveredCount.increment();
+    }
+
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public double getAverageDeliveryLagMillis() {
+        long delivered = deliveredCount.sum();
+        return delivered == 0 ? 0 : totalLagNanos.sum() / (delivered * 1_000_000.0);
+    }
+
+    public double getMaxDeliveryLagMillis() {
+        return maxLagNanos.get() / 1_000_000.0;
+    }
+
+    public void flush() {
+        try {
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            logger.warn("Notification queue could not be flushed");
+        }
+    }
+
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+    }
+
+    private static final class Key {
+        private final int branchId;
+        private final long isbn;
+
+        private Key(int branchId, long isbn) {
+            this.branchId = branchId;
+            this.isbn = isbn;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return branchId == key.branchId && isbn == key.isbn;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(branchId, isbn);
+        }
+    }
+
+    private static final class Notification {
+        private final Reservations reservations;
+        private final Book book;
+        private final boolean isAvailable;
+        private final Branch branch;
+        private final long enqueuedAt;
+
+        private Notification(Reservations reservations, Book book, boolean isAvailable, Branch branch, long enqueuedAt) {
+            this.reservations = reservations;
+            this.book = book;
+            this.isAvailable = isAvailable;
+            this.branch = branch;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
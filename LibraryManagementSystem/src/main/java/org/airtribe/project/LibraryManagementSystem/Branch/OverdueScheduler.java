@@ -0,0 +1,287 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Hierarchical timing wheel (4 levels x 64 buckets) of open loans keyed by due date.
+// Scheduling and cancelling are O(1); each tick expires one level-0 bucket and, every 64 ticks,
+// cascades one bucket of the next level down, so the per-tick cost does not depend on the number of loans.
+// A loan fires an overdue event at its due date and then a fine event every fine interval until it is returned.
+// Timers live in primitive slab columns linked into buckets by slot index.
+public class OverdueScheduler {
+    private static final Logger logger = LogManager.getLogger(OverdueScheduler.class);
+
+    private static final int LEVELS = 4;
+    private static final int BUCKET_BITS = 6;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final int BUCKET_MASK = BUCKETS - 1;
+    private static final long SPAN = 1L << (BUCKET_BITS * LEVELS);
+    private static final int NONE = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final long DEFAULT_TICK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long DEFAULT_FINE_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long DEFAULT_FINE_PER_INTERVAL = 10;
+
+    private final long tickMillis;
+    private final long fineIntervalTicks;
+    private final long finePerInterval;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongIntHashMap slotsByLoanId = new LongIntHashMap();
+    private final int[] bucketHeads = new int[LEVELS * BUCKETS];
+
+    private long[] deadlines = new long[DEFAULT_CAPACITY];
+    private int[] fineCounts = new int[DEFAULT_CAPACITY];
+    private int[] next = new int[DEFAULT_CAPACITY];
+    private int[] previous = new int[DEFAULT_CAPACITY];
+    private int[] buckets = new int[DEFAULT_CAPACITY];
+    private Token[] tokens = new Token[DEFAULT_CAPACITY];
+    private Branch[] branches = new Branch[DEFAULT_CAPACITY];
+    private int slotCount;
+    private int freeHead = NONE;
+    private int size;
+    private long currentTick;
+    private ScheduledExecutorService executor;
+
+    public OverdueScheduler() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_FINE_INTERVAL_MILLIS, DEFAULT_FINE_PER_INTERVAL, System::currentTimeMillis);
+    }
+
+    public OverdueScheduler(long tickMillis, long fineIntervalMillis, long finePerInterval, LongSupplier clock) {
+        this.tickMillis = tickMillis;
+        this.fineIntervalTicks = Math.max(1, fineIntervalMillis / tickMillis);
+        this.finePerInterval = finePerInterval;
+        this.clock = clock;
+        this.currentTick = clock.getAsLong() / tickMillis;
+        Arrays.fill(bucketHeads, NONE);
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "overdue-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                advance(clock.getAsLong());
+            } catch (RuntimeException e) {
+                logger.error("Failed to advance overdue scheduler", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    protected void schedule(Token token, Branch branch) {
+        lock.lock();
+        try {
+            if (slotsByLoanId.containsKey(token.getTokenId())) {
+                return;
+            }
+            int slot = allocate();
+            tokens[slot] = token;
+            branches[slot] = branch;
+            fineCounts[slot] = 0;
+            slotsByLoanId.put(token.getTokenId(), slot);
+            size++;
+            insert(slot, Math.floorDiv(token.getDueAt() + tickMillis - 1, tickMillis), 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected boolean cancel(Token token) {
+        lock.lock();
+        try {
+            int slot = slotsByLoanId.get(token.getTokenId(), NONE);
+            if (slot == NONE) {
+                return false;
+            }
+            slotsByLoanId.remove(token.getTokenId());
+            unlink(slot);
+            release(slot);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Integer> expired = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                currentTick++;
+                if ((currentTick & BUCKET_MASK) == 0) {
+                    cascade(1);
+                }
+                drain(bucketIndex(0, currentTick), expired);
+                for (int slot : expired) {
+                    int fines = fineCounts[slot];
+                    events.add(new Event(tokens[slot], branches[slot], fines == 0 ? 0 : fines * finePerInterval));
+                    fineCounts[slot] = fines + 1;
+                    insert(slot, deadlines[slot] + fineIntervalTicks, 1);
+                }
+                expired.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Event event : events) {
+            fire(event);
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fire(Event event) {
+        try {
+            if (event.fineAmount == 0) {
+                event.token.getPatron().onOverdue(event.token, event.branch);
+            } else {
+                event.token.getPatron().onFine(event.token, event.fineAmount, event.branch);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to deliver overdue notification for loan {}", event.token.getTokenId(), e);
+        }
+    }
+
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        long digit = (currentTick >>> (BUCKET_BITS * level)) & BUCKET_MASK;
+        if (digit == 0) {
+            cascade(level + 1);
+        }
+        int bucket = level * BUCKETS + (int) digit;
+        int slot = bucketHeads[bucket];
+        bucketHeads[bucket] = NONE;
+        while (slot != NONE) {
+            int following = next[slot];
+            insert(slot, deadlines[slot], 0);
+            slot = following;
+        }
+    }
+
+    private void drain(int bucket, List<Integer> expired) {
+        int slot = bucketHeads[bucket];
+        bucketHeads[bucket] = NONE;
+        while (slot != NONE) {
+            int following = next[slot];
+            if (deadlines[slot] <= currentTick) {
+                expired.add(slot);
+            } else {
+                insert(slot, deadlines[slot], 1);
+            }
+            slot = following;
+        }
+    }
+
+    // Cascades run before the current level-0 bucket is drained, so they may place timers in it (minimumDelta 0).
+    private void insert(int slot, long deadlineTick, long minimumDelta) {
+        deadlines[slot] = deadlineTick;
+        long delta = Math.max(minimumDelta, deadlineTick - currentTick);
+        long placedTick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BUCKET_BITS * (level + 1))) {
+            level++;
+        }
+        if (delta >= SPAN) {
+            placedTick = currentTick + SPAN - 1;
+        }
+        int bucket = bucketIndex(level, placedTick);
+        int head = bucketHeads[bucket];
+        next[slot] = head;
+        previous[slot] = NONE;
+        if (head != NONE) {
+            previous[head] = slot;
+        }
+        bucketHeads[bucket] = slot;
+        buckets[slot] = bucket;
+    }
+
+    private void unlink(int slot) {
+        int before = previous[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            bucketHeads[buckets[slot]] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NONE) {
+            previous[after] = before;
+        }
+    }
+
+    private static int bucketIndex(int level, long tick) {
+        return level * BUCKETS + (int) ((tick >>> (BUCKET_BITS * level)) & BUCKET_MASK);
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (slotCount == tokens.length) {
+            int capacity = tokens.length << 1;
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            fineCounts = Arrays.copyOf(fineCounts, capacity);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+            branches = Arrays.copyOf(branches, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void release(int slot) {
+        tokens[slot] = null;
+        branches[slot] = null;
+        next[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    private static class Event {
+        private final Token token;
+        private final Branch branch;
+        private final long fineAmount;
+
+        private Event(Token token, Branch branch, long fineAmount) {
+            this.token = token;
+            this.branch = branch;
+            this.fineAmount = fineAmount;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+// One page of a lazily evaluated listing. The page holds the underlying cursor, so next() continues
+// where this page stopped without re-running the query.
+public class Page<T> {
+    private final List<T> items;
+    private final Iterator<T> cursor;
+    private final int pageSize;
+
+    protected Page(Iterator<T> cursor, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        List<T> items = new ArrayList<>(pageSize);
+        while (items.size() < pageSize && cursor.hasNext()) {
+            items.add(cursor.next());
+        }
+        this.items = Collections.unmodifiableList(items);
+        this.cursor = cursor;
+        this.pageSize = pageSize;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public boolean hasNext() {
+        return cursor.hasNext();
+    }
+
+    public Page<T> next() {
+        return new Page<>(cursor, pageSize);
+    }
+}
@@ -0,0 +1,180 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Plans inter-branch transfers from unmet reservations: a branch whose waitlist exceeds its stock has a deficit,
+// a branch whose stock exceeds its waitlist (plus the copies it keeps) has a surplus.
+// Without transfer costs every maximal matching leaves the same number of reservations unmet, so per ISBN
+// the largest deficits are filled from the largest surpluses first, which also keeps the number of transfers low.
+// Only ISBNs with a waitlist somewhere are examined, and they are planned in parallel.
+public class RebalancingPlanner {
+    private static final Logger logger = LogManager.getLogger(RebalancingPlanner.class);
+
+    private final int parallelism;
+    private final int retainedCopies;
+
+    public RebalancingPlanner() {
+        this(Runtime.getRuntime().availableProcessors(), 1);
+    }
+
+    public RebalancingPlanner(int parallelism, int retainedCopies) {
+        this.parallelism = parallelism;
+        this.retainedCopies = retainedCopies;
+    }
+
+    public TransferPlan plan(Collection<Branch> branches) {
+        long start = System.nanoTime();
+        Branch[] branchArray = branches.toArray(new Branch[0]);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> {
+                Map<Long, List<int[]>> deficits = new ConcurrentHashMap<>();
+                IntStream.range(0, branchArray.length).parallel().forEach(index -> {
+                    Inventory inventory = branchArray[index].getInventory();
+                    inventory.forEachWaitlist((book, waitlist) -> {
+                        int deficit = waitlist - inventory.getQuantity(book);
+                        if (deficit > 0) {
+                            deficits.computeIfAbsent(book.getIsbn(), isbn -> Collections.synchronizedList(new ArrayList<>()))
+                                    .add(new int[]{index, deficit});
+                        }
+                    });
+                });
+                List<IsbnPlan> plans = deficits.entrySet().parallelStream()
+                        .map(entry -> planIsbn(entry.getKey(), entry.getValue(), branchArray))
+                        .collect(Collectors.toList());
+
+                List<TransferPlan.Transfer> transfers = new ArrayList<>();
+                long unmetBefore = 0;
+                long unmetAfter = 0;
+                for (IsbnPlan plan : plans) {
+                    transfers.addAll(plan.transfers);
+                    unmetBefore += plan.unmetBefore;
+                    unmetAfter += plan.unmetAfter;
+                }
+                logger.info("Rebalancing plan: {} transfer(s) over {} title(s), unmet reservations {} -> {} in {} ms",
+                        transfers.size(), plans.size(), unmetBefore, unmetAfter, (System.nanoTime() - start) / 1_000_000);
+                return new TransferPlan(transfers, unmetBefore, unmetAfter);
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rebalancing plan was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rebalancing plan failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private IsbnPlan planIsbn(long isbn, List<int[]> deficitList, Branch[] branches) {
+        Book book = BookRegistry.getInstance().getBook(isbn);
+        List<int[]> deficits = new ArrayList<>(deficitList);
+        deficits.sort((a, b) -> Integer.compare(b[1], a[1]));
+        List<int[]> surpluses = new ArrayList<>();
+        for (int index = 0; index < branches.length; index++) {
+            Inventory inventory = branches[index].getInventory();
+            int surplus = inventory.getQuantity(book) - inventory.getWaitlistSize(book) - retainedCopies;
+            if (surplus > 0) {
+                surpluses.add(new int[]{index, surplus});
+            }
+        }
+        surpluses.sort((a, b) -> Integer.compare(b[1], a[1]));
+
+        IsbnPlan plan = new IsbnPlan();
+        int donor = 0;
+        for (int[] deficit : deficits) {
+            plan.unmetBefore += deficit[1];
+            int needed = deficit[1];
+            while (needed > 0 && donor < surpluses.size()) {
+                int[] surplus = surpluses.get(donor);
+                int quantity = Math.min(needed, surplus[1]);
+                plan.transfers.add(new TransferPlan.Transfer(book, branches[surplus[0]], branches[deficit[0]], quantity));
+                needed -= quantity;
+                surplus[1] -= quantity;
+                if (surplus[1] == 0) {
+                    donor++;
+                }
+            }
+            plan.unmetAfter += needed;
+        }
+        return plan;
+    }
+
+    // Applies every transfer or none: the journal and stock locks of all touched (branch, ISBN) pairs are taken
+    // in a global order, every source is re-validated, and only then are the copies moved with transferBook.
+    public boolean apply(TransferPlan plan) {
+        if (plan.isEmpty()) {
+            return true;
+        }
+        Map<Branch, SortedSet<Long>> isbnsByBranch = new TreeMap<>(Comparator.comparingInt(Branch::getBranchId));
+        Map<Long, Map<Branch, Integer>> withdrawals = new HashMap<>();
+        for (TransferPlan.Transfer transfer : plan.getTransfers()) {
+            long isbn = transfer.getBook().getIsbn();
+            isbnsByBranch.computeIfAbsent(transfer.getSource(), branch -> new TreeSet<>()).add(isbn);
+            isbnsByBranch.computeIfAbsent(transfer.getTarget(), branch -> new TreeSet<>()).add(isbn);
+            withdrawals.computeIfAbsent(isbn, key -> new HashMap<>()).merge(transfer.getSource(), transfer.getQuantity(), Integer::sum);
+        }
+
+        List<Lock> held = new ArrayList<>();
+        try {
+            for (Branch branch : isbnsByBranch.keySet()) {
+                lock(branch.getInventory().getJournalLock().readLock(), held);
+            }
+            for (Map.Entry<Branch, SortedSet<Long>> entry : isbnsByBranch.entrySet()) {
+                Inventory inventory = entry.getKey().getInventory();
+                SortedMap<Integer, Lock> stripes = new TreeMap<>();
+                for (long isbn : entry.getValue()) {
+                    stripes.put(inventory.getStockStripe(isbn), inventory.getStockLock(isbn));
+                }
+                for (Lock stripe : stripes.values()) {
+                    lock(stripe, held);
+                }
+            }
+
+            for (Map.Entry<Long, Map<Branch, Integer>> entry : withdrawals.entrySet()) {
+                Book book = BookRegistry.getInstance().getBook(entry.getKey());
+                for (Map.Entry<Branch, Integer> withdrawal : entry.getValue().entrySet()) {
+                    if (withdrawal.getKey().getInventory().getQuantity(book) < withdrawal.getValue()) {
+                        logger.warn("Rebalancing plan is stale: Branch {} no longer has {} copies of {}",
+                                withdrawal.getKey().getBranchName(), withdrawal.getValue(), book.getTitle());
+                        return false;
+                    }
+                }
+            }
+            for (TransferPlan.Transfer transfer : plan.getTransfers()) {
+                transfer.getSource().transferBook(transfer.getBook(), transfer.getTarget(), transfer.getQuantity());
+            }
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+
+        for (TransferPlan.Transfer transfer : plan.getTransfers()) {
+            transfer.getTarget().getInventory().notifyObservers(transfer.getBook(), true, transfer.getTarget());
+        }
+        logger.info("Applied rebalancing plan with {} transfer(s)", plan.getTransfers().size());
+        return true;
+    }
+
+    private static void lock(Lock lock, List<Lock> held) {
+        lock.lock();
+        held.add(lock);
+    }
+
+    private static class IsbnPlan {
+        private final List<TransferPlan.Transfer> transfers = new ArrayList<>();
+        private long unmetBefore;
+        private long unmetAfter;
+    }
+}
@@ -1,8 +1,8 @@
 package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
 
 import org.airtribe.project.LibraryManagementSystem.Book.Book;
-import org.airtribe.project.LibraryManagementSystem.Branch.Inventory;
 import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.Patron.PreferenceProfile;
 
 import java.util.*;
 
@@ -10,26 +10,21 @@ import java.util.*;
 public class AuthorRecommendation implements RecommendationSystem {
 
     @Override
-    public void displayRecommendations(Patron patron, Inventory inventory) {
+    public void displayRecommendations(List<Book> recommendations) {
         logger.info("\tDisplaying recommendations by Author");
-        suggestBooksByAuthor(patron, inventory);
+        RecommendationSystem.displayBooks(recommendations, "No books found by preferred authors");
     }
 
-    private void suggestBooksByAuthor(Patron patron, Inventory inventory) {
-        Set<String> preferredAuthors = patron.getPreferredAuthors();
-        Set<Book> books = inventory.getAvailableBooks();
-
-        boolean found = false;
+    @Override
+    public List<Book> getRecommendations(Patron patron, Set<Book> availableBooks) {
+        PreferenceProfile preferenceProfile = patron.getPreferenceProfile();
+        List<Book> recommendations = new ArrayList<>();
 
-        for (Book book : books) {
-            if (preferredAuthors.contains(book.getAuthor()) && patron.hasBorrowedTheBook(book) && patron.hasAlreadyReadTheBook(book)) {
-                found = true;
-                logger.info('\t' + "\tBook Title: {} Author: {} Genre: {}", book.getTitle(), book.getAuthor(), book.getGenre());
+        for (Book book : availableBooks) {
+            if (preferenceProfile.hasAuthorCode(book.getAuthorCode()) && patron.hasBorrowedTheBook(book) && patron.hasAlreadyReadTheBook(book)) {
+                recommendations.add(book);
             }
         }
-
-        if (!found) {
-            logger.info('\t' + "No books found by preferred authors");
-        }
+        return recommendations;
     }
 }
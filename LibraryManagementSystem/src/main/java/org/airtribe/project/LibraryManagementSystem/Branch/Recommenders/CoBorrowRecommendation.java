@@ -0,0 +1,98 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.LoanObserver;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CoBorrowRecommendation implements RecommendationSystem, LoanObserver {
+    private static final int DEFAULT_LIMIT = 5;
+    // Min-heap order of the top-K; ties go to the lower ISBN so results are deterministic.
+    private static final Comparator<Map.Entry<Long, Integer>> WORST_FIRST = Map.Entry.<Long, Integer>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+    private final int limit;
+    private final Map<Long, Map<Long, Integer>> coBorrowCounts = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public CoBorrowRecommendation() {
+        this(DEFAULT_LIMIT);
+    }
+
+    public CoBorrowRecommendation(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void onBookReturned(Patron patron, Book book, Branch branch, boolean isFirstRead) {
+        if (!isFirstRead) {
+            return;
+        }
+        for (Book borrowed : patron.getBorrowHistory()) {
+            if (borrowed.getIsbn() == book.getIsbn()) {
+                continue;
+            }
+            increment(borrowed.getIsbn(), book.getIsbn());
+            increment(book.getIsbn(), borrowed.getIsbn());
+        }
+        version.incrementAndGet();
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    private void increment(long isbn, long coBorrowedIsbn) {
+        coBorrowCounts.computeIfAbsent(isbn, k -> new ConcurrentHashMap<>()).merge(coBorrowedIsbn, 1, Integer::sum);
+    }
+
+    public int getCoBorrowCount(Book book, Book other) {
+        Map<Long, Integer> counts = coBorrowCounts.get(book.getIsbn());
+        return counts == null ? 0 : counts.getOrDefault(other.getIsbn(), 0);
+    }
+
+    @Override
+    public void displayRecommendations(List<Book> recommendations) {
+        logger.info("\tDisplaying recommendations by Co-borrowing");
+        RecommendationSystem.displayBooks(recommendations, "No books found by co-borrowing patterns");
+    }
+
+    @Override
+    public List<Book> getRecommendations(Patron patron, Set<Book> availableBooks) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Book borrowed : patron.getBorrowHistory()) {
+            Map<Long, Integer> counts = coBorrowCounts.get(borrowed.getIsbn());
+            if (counts == null) {
+                continue;
+            }
+            for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+                scores.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+        }
+
+        BookRegistry registry = BookRegistry.getInstance();
+        PriorityQueue<Map.Entry<Long, Integer>> topScores = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            Book book = registry.getBook(entry.getKey());
+            if (book == null || !availableBooks.contains(book) || !patron.hasBorrowedTheBook(book) || !patron.hasAlreadyReadTheBook(book)) {
+                continue;
+            }
+            topScores.offer(entry);
+            if (topScores.size() > limit) {
+                topScores.poll();
+            }
+        }
+
+        LinkedList<Book> books = new LinkedList<>();
+        while (!topScores.isEmpty()) {
+            books.addFirst(registry.getBook(topScores.poll().getKey()));
+        }
+        return books;
+    }
+}
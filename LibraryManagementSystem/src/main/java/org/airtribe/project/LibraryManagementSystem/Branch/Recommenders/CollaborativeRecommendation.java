@@ -0,0 +1,156 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.LoanObserver;
+import org.airtribe.project.LibraryManagementSystem.Patron.MinHashSignature;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// "Patrons similar to you borrowed X": patrons are bucketed by each LSH band of their MinHashSignature, so the
+// neighbours of a patron are the patrons sharing a bucket with them instead of every other patron.
+// Buckets are refreshed on every first read; neighbours are ranked by estimated Jaccard similarity and their
+// unread, available books scored by the summed similarity of the neighbours who read them.
+public class CollaborativeRecommendation implements RecommendationSystem, LoanObserver {
+    private static final int DEFAULT_LIMIT = 5;
+    private static final int DEFAULT_NEIGHBOURS = 20;
+    // Bounds the work per request when a band is shared by a very popular pair of books.
+    private static final int MAX_CANDIDATES = 1000;
+    // Ties are broken by patron id and ISBN so that equal scores always give the same recommendations.
+    private static final Comparator<Map.Entry<Patron, Double>> FARTHEST_FIRST = Map.Entry.<Patron, Double>comparingByValue()
+            .thenComparing(entry -> entry.getKey().getPatronId(), Comparator.reverseOrder());
+    private static final Comparator<Map.Entry<Long, Double>> WORST_FIRST = Map.Entry.<Long, Double>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+    private final int limit;
+    private final int neighbours;
+    private final List<Map<Long, Set<Patron>>> buckets = new ArrayList<>(MinHashSignature.BANDS);
+    private final Map<Patron, long[]> bandKeys = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public CollaborativeRecommendation() {
+        this(DEFAULT_LIMIT, DEFAULT_NEIGHBOURS);
+    }
+
+    public CollaborativeRecommendation(int limit, int neighbours) {
+        this.limit = limit;
+        this.neighbours = neighbours;
+        for (int band = 0; band < MinHashSignature.BANDS; band++) {
+            buckets.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void onBookReturned(Patron patron, Book book, Branch branch, boolean isFirstRead) {
+        if (isFirstRead) {
+            index(patron);
+        }
+    }
+
+    // Moves the patron to the buckets of their current signature; only the bands that changed are touched.
+    public void index(Patron patron) {
+        bandKeys.compute(patron, (p, previous) -> {
+            long[] current = p.getSignature().getBandKeys();
+            for (int band = 0; band < current.length; band++) {
+                if (previous != null && previous[band] == current[band]) {
+                    continue;
+                }
+                Map<Long, Set<Patron>> bandBuckets = buckets.get(band);
+                if (previous != null) {
+                    long key = previous[band];
+                    bandBuckets.computeIfPresent(key, (k, members) -> {
+                        members.remove(p);
+                        return members.isEmpty() ? null : members;
+                    });
+                }
+                bandBuckets.compute(current[band], (k, members) -> {
+                    Set<Patron> updated = members == null ? ConcurrentHashMap.newKeySet() : members;
+                    updated.add(p);
+                    return updated;
+                });
+            }
+            return current.length == 0 ? previous : current;
+        });
+        // Any patron's history may feed someone else's recommendations, even when the buckets did not move.
+        version.incrementAndGet();
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    public Set<Patron> getCandidates(Patron patron) {
+        long[] keys = bandKeys.get(patron);
+        Set<Patron> candidates = new HashSet<>();
+        if (keys == null) {
+            return candidates;
+        }
+        for (int band = 0; band < keys.length && candidates.size() < MAX_CANDIDATES; band++) {
+            Set<Patron> members = buckets.get(band).get(keys[band]);
+            if (members == null) {
+                continue;
+            }
+            for (Patron member : members) {
+                if (member != patron) {
+                    candidates.add(member);
+                    if (candidates.size() == MAX_CANDIDATES) {
+                        break;
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    public void displayRecommendations(List<Book> recommendations) {
+        logger.info("\tDisplaying recommendations by similar Patrons");
+        RecommendationSystem.displayBooks(recommendations, "No books found by similar Patrons");
+    }
+
+    @Override
+    public List<Book> getRecommendations(Patron patron, Set<Book> availableBooks) {
+        MinHashSignature signature = patron.getSignature();
+        PriorityQueue<Map.Entry<Patron, Double>> nearest = new PriorityQueue<>(neighbours + 1, FARTHEST_FIRST);
+        for (Patron candidate : getCandidates(patron)) {
+            double similarity = signature.estimateSimilarity(candidate.getSignature());
+            if (similarity == 0) {
+                continue;
+            }
+            nearest.offer(new AbstractMap.SimpleEntry<>(candidate, similarity));
+            if (nearest.size() > neighbours) {
+                nearest.poll();
+            }
+        }
+
+        BookRegistry registry = BookRegistry.getInstance();
+        Map<Integer, Double> scores = new HashMap<>();
+        for (Map.Entry<Patron, Double> neighbour : nearest) {
+            double similarity = neighbour.getValue();
+            neighbour.getKey().getBorrowHistoryOrdinals().forEach(ordinal -> scores.merge(ordinal, similarity, Double::sum));
+        }
+
+        PriorityQueue<Map.Entry<Long, Double>> topScores = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            Book book = registry.getBookByOrdinal(entry.getKey());
+            if (book == null || !availableBooks.contains(book) || !patron.hasBorrowedTheBook(book) || !patron.hasAlreadyReadTheBook(book)) {
+                continue;
+            }
+            topScores.offer(new AbstractMap.SimpleEntry<>(book.getIsbn(), entry.getValue()));
+            if (topScores.size() > limit) {
+                topScores.poll();
+            }
+        }
+
+        LinkedList<Book> books = new LinkedList<>();
+        while (!topScores.isEmpty()) {
+            books.addFirst(registry.getBook(topScores.poll().getKey()));
+        }
+        return books;
+    }
+}
@@ -1,35 +1,31 @@
 package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
 
 import org.airtribe.project.LibraryManagementSystem.Book.Book;
-import org.airtribe.project.LibraryManagementSystem.Branch.Inventory;
 import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.Patron.PreferenceProfile;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public class GenreRecommendation implements RecommendationSystem {
 
     @Override
-    public void displayRecommendations(Patron patron, Inventory inventory) {
-
+    public void displayRecommendations(List<Book> recommendations) {
         logger.info("\tDisplaying recommendations by Genre");
-        suggestBooksByGenre(patron, inventory);
+        RecommendationSystem.displayBooks(recommendations, "No books found by preferred genres");
     }
 
-    private void suggestBooksByGenre(Patron patron, Inventory inventory) {
-        Set<String> preferredGenres = patron.getPreferredGenres();
-        Set<Book> books = inventory.getAvailableBooks();
-
-        boolean found = false;
+    @Override
+    public List<Book> getRecommendations(Patron patron, Set<Book> availableBooks) {
+        PreferenceProfile preferenceProfile = patron.getPreferenceProfile();
+        List<Book> recommendations = new ArrayList<>();
 
-        for (Book book : books) {
-            if (preferredGenres.contains(book.getGenre()) && patron.hasBorrowedTheBook(book) && patron.hasAlreadyReadTheBook(book)) {
-                found = true;
-                logger.info('\t' + "\tBook Title: {} Author: {} Genre: {}", book.getTitle(), book.getAuthor(), book.getGenre());
+        for (Book book : availableBooks) {
+            if (preferenceProfile.hasGenreCode(book.getGenreCode()) && patron.hasBorrowedTheBook(book) && patron.hasAlreadyReadTheBook(book)) {
+                recommendations.add(book);
             }
         }
-
-        if (!found) {
-            logger.info('\t' + "No books found by preferred genres");
-        }
+        return recommendations;
     }
 }
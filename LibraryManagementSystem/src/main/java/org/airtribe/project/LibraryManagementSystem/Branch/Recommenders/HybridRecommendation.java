@@ -0,0 +1,284 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.TitleAnalyzer;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.LoanObserver;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.Patron.PreferenceProfile;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.StreamSupport;
+
+// Scores every available book once against all signals instead of running the author, genre and title
+// strategies one after another:
+//   authorWeight * author affinity + genreWeight * genre affinity + titleWeight * title keyword overlap
+//   + popularityWeight * popularity
+// Affinities are the patron's recency-weighted PreferenceProfile weights scaled to [0, 1] by the top one, the
+// overlap is the share of the book's title keywords found in the patron's history, and popularity is
+// log(1 + loans) / log(1 + most loans) over the checkouts this recommender has observed.
+// Large inventories are scored in parallel, each worker keeping its own bounded top-K heap, merged at the end.
+// The title overlap, the costliest signal, is skipped when even a full overlap could not lift the book into
+// the heap, and a book is only checked against the patron's loans and history once it would enter the heap.
+public class HybridRecommendation implements RecommendationSystem, LoanObserver {
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int PARALLEL_THRESHOLD = 4096;
+    // Popularity may lag by this many loans before cached results are invalidated; see getVersion().
+    private static final int POPULARITY_VERSION_SHIFT = 10;
+
+    private final double authorWeight;
+    private final double genreWeight;
+    private final double titleWeight;
+    private final double popularityWeight;
+    private final int limit;
+    private final TitleAnalyzer titleAnalyzer = TitleAnalyzer.getInstance();
+    // Checkouts per book ordinal, grown on demand.
+    private volatile AtomicIntegerArray loanCounts = new AtomicIntegerArray(1024);
+    private final AtomicInteger mostLoans = new AtomicInteger();
+    private final AtomicLong loans = new AtomicLong();
+
+    public HybridRecommendation() {
+        this(1.0, 0.5, 0.75, 0.25, DEFAULT_LIMIT);
+    }
+
+    public HybridRecommendation(double authorWeight, double genreWeight, double titleWeight, double popularityWeight, int limit) {
+        if (authorWeight < 0 || genreWeight < 0 || titleWeight < 0 || popularityWeight < 0) {
+            throw new IllegalArgumentException("Signal weights must not be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        this.authorWeight = authorWeight;
+        this.genreWeight = genreWeight;
+        this.titleWeight = titleWeight;
+        this.popularityWeight = popularityWeight;
+        this.limit = limit;
+    }
+
+    @Override
+    public void onBookCheckedOut(Patron patron, Book book, Branch branch) {
+        int ordinal = book.getOrdinal();
+        AtomicIntegerArray counts = loanCounts;
+        if (ordinal >= counts.length()) {
+            counts = grow(ordinal);
+        }
+        int count = counts.incrementAndGet(ordinal);
+        if (count > mostLoans.get()) {
+            mostLoans.accumulateAndGet(count, Math::max);
+        }
+        loans.incrementAndGet();
+    }
+
+    // Counts that land in the old array while it is copied are lost; popularity is a ranking hint, not a ledger.
+    private synchronized AtomicIntegerArray grow(int ordinal) {
+        AtomicIntegerArray counts = loanCounts;
+        if (ordinal < counts.length()) {
+            return counts;
+        }
+        int length = counts.length();
+        while (length <= ordinal) {
+            length <<= 1;
+        }
+        AtomicIntegerArray grown = new AtomicIntegerArray(length);
+        for (int i = 0; i < counts.length(); i++) {
+            grown.set(i, counts.get(i));
+        }
+        loanCounts = grown;
+        return grown;
+    }
+
+    @Override
+    public void onBookReturned(Patron patron, Book book, Branch branch, boolean isFirstRead) {
+    }
+
+    public int getLoanCount(Book book) {
+        AtomicIntegerArray counts = loanCounts;
+        int ordinal = book.getOrdinal();
+        return ordinal >= 0 && ordinal < counts.length() ? counts.get(ordinal) : 0;
+    }
+
+    // Only every 1024th loan moves the version, so RecommendationCache entries survive small popularity drift.
+    @Override
+    public long getVersion() {
+        return loans.get() >>> POPULARITY_VERSION_SHIFT;
+    }
+
+    @Override
+    public void displayRecommendations(List<Book> recommendations) {
+        logger.info("\tDisplaying recommendations by combined author, genre, title and popularity signals");
+        RecommendationSystem.displayBooks(recommendations, "No books found by combined signals");
+    }
+
+    @Override
+    public List<Book> getRecommendations(Patron patron, Set<Book> availableBooks) {
+        Signals signals = new Signals(patron);
+        boolean isParallel = availableBooks.size() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+        TopBooks top = StreamSupport.stream(availableBooks.spliterator(), isParallel)
+                .collect(() -> new TopBooks(limit), (heap, book) -> {
+                    double score = signals.baseScore(book);
+                    if (!heap.accepts(book, score + signals.maxTitleScore)) {
+                        return;
+                    }
+                    score += signals.titleScore(book);
+                    if (heap.accepts(book, score) && signals.isUnread(book)) {
+                        heap.offer(book, score);
+                    }
+                }, TopBooks::merge);
+        return top.toList();
+    }
+
+    // 0 for books the patron has borrowed or read, as those are never recommended.
+    public double score(Patron patron, Book book) {
+        Signals signals = new Signals(patron);
+        return signals.isUnread(book) ? signals.baseScore(book) + signals.titleScore(book) : 0;
+    }
+
+    // Everything derived from the patron, computed once per request so the scoring pass takes no locks.
+    private final class Signals {
+        private final Patron patron;
+        private final int[] authorCodes;
+        private final double[] authorAffinities;
+        private final int[] genreCodes;
+        private final double[] genreAffinities;
+        private final BitSet preferredKeywords = new BitSet();
+        private final AtomicIntegerArray counts = loanCounts;
+        private final double popularityScale;
+        private final double maxTitleScore;
+
+        private Signals(Patron patron) {
+            this.patron = patron;
+            PreferenceProfile profile = patron.getPreferenceProfile();
+            this.authorCodes = sortedCodes(profile.getAuthorCodes());
+            this.authorAffinities = new double[authorCodes.length];
+            for (int i = 0; i < authorCodes.length; i++) {
+                authorAffinities[i] = profile.getAuthorWeight(authorCodes[i]);
+            }
+            normalize(authorAffinities);
+            this.genreCodes = sortedCodes(profile.getGenreCodes());
+            this.genreAffinities = new double[genreCodes.length];
+            for (int i = 0; i < genreCodes.length; i++) {
+                genreAffinities[i] = profile.getGenreWeight(genreCodes[i]);
+            }
+            normalize(genreAffinities);
+            if (titleWeight > 0) {
+                for (Book book : patron.getBorrowHistory()) {
+                    titleAnalyzer.addTitleTokens(book, preferredKeywords);
+                }
+            }
+            int most = mostLoans.get();
+            this.popularityScale = most == 0 ? 0 : 1 / Math.log1p(most);
+            this.maxTitleScore = preferredKeywords.isEmpty() ? 0 : titleWeight;
+        }
+
+        // Author, genre and popularity signals.
+        private double baseScore(Book book) {
+            double score = 0;
+            if (authorWeight > 0) {
+                score += authorWeight * affinity(authorCodes, authorAffinities, book.getAuthorCode());
+            }
+            if (genreWeight > 0) {
+                score += genreWeight * affinity(genreCodes, genreAffinities, book.getGenreCode());
+            }
+            if (popularityWeight > 0 && popularityScale > 0) {
+                int ordinal = book.getOrdinal();
+                int count = ordinal >= 0 && ordinal < counts.length() ? counts.get(ordinal) : 0;
+                score += popularityWeight * Math.min(1, Math.log1p(count) * popularityScale);
+            }
+            return score;
+        }
+
+        private double titleScore(Book book) {
+            return maxTitleScore == 0 ? 0 : titleWeight * titleAnalyzer.getSharedTitleTokenRatio(book, preferredKeywords);
+        }
+
+        private boolean isUnread(Book book) {
+            return patron.hasBorrowedTheBook(book) && patron.hasAlreadyReadTheBook(book);
+        }
+    }
+
+    private static int[] sortedCodes(Set<Integer> codes) {
+        int[] sorted = codes.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static void normalize(double[] weights) {
+        double max = 0;
+        for (double weight : weights) {
+            max = Math.max(max, weight);
+        }
+        if (max > 0) {
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= max;
+            }
+        }
+    }
+
+    private static double affinity(int[] codes, double[] affinities, int code) {
+        int index = Arrays.binarySearch(codes, code);
+        return index < 0 ? 0 : affinities[index];
+    }
+
+    // Bounded min-heap of the best scored books; ties go to the lower ISBN so results are deterministic.
+    private static final class TopBooks {
+        private static final Comparator<ScoredBook> WORST_FIRST = Comparator.<ScoredBook>comparingDouble(scored -> scored.score)
+                .thenComparing(scored -> scored.book.getIsbn(), Comparator.reverseOrder());
+
+        private final int limit;
+        private final PriorityQueue<ScoredBook> heap;
+
+        private TopBooks(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        }
+
+        private boolean accepts(Book book, double score) {
+            if (score <= 0) {
+                return false;
+            }
+            if (heap.size() < limit) {
+                return true;
+            }
+            ScoredBook worst = heap.peek();
+            return score > worst.score || (score == worst.score && book.getIsbn() < worst.book.getIsbn());
+        }
+
+        // Callers check accepts() first.
+        private void offer(Book book, double score) {
+            if (heap.size() == limit) {
+                heap.poll();
+            }
+            heap.offer(new ScoredBook(book, score));
+        }
+
+        private void merge(TopBooks other) {
+            for (ScoredBook scored : other.heap) {
+                if (accepts(scored.book, scored.score)) {
+                    offer(scored.book, scored.score);
+                }
+            }
+        }
+
+        private List<Book> toList() {
+            LinkedList<Book> books = new LinkedList<>();
+            while (!heap.isEmpty()) {
+                books.addFirst(heap.poll().book);
+            }
+            return books;
+        }
+    }
+
+    private static final class ScoredBook {
+        private final Book book;
+        private final double score;
+
+        private ScoredBook(Book book, double score) {
+            this.book = book;
+            this.score = score;
+        }
+    }
+}
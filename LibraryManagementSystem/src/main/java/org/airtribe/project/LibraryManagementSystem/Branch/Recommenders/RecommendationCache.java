@@ -0,0 +1,120 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Inventory;
+import org.airtribe.project.LibraryManagementSystem.Branch.InventorySnapshot;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU cache of recommendation results for one branch, keyed by (patron, strategy).
+// An entry is served only while the three versions it was computed at still hold: the patron's history version,
+// the availability version of the branch's inventory snapshot and the strategy's own version. Nothing is ever
+// invalidated explicitly; a stale entry simply fails the check and is recomputed on the next lookup.
+public class RecommendationCache {
+    private static final int DEFAULT_CAPACITY = 10_000;
+
+    private final Map<Key, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static final class Key {
+        private final Patron patron;
+        private final RecommendationSystem recommendationSystem;
+
+        private Key(Patron patron, RecommendationSystem recommendationSystem) {
+            this.patron = patron;
+            this.recommendationSystem = recommendationSystem;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return patron == other.patron && recommendationSystem == other.recommendationSystem;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(patron) + System.identityHashCode(recommendationSystem);
+        }
+    }
+
+    private static final class Entry {
+        private final long historyVersion;
+        private final long availabilityVersion;
+        private final long strategyVersion;
+        private final List<Book> books;
+
+        private Entry(long historyVersion, long availabilityVersion, long strategyVersion, List<Book> books) {
+            this.historyVersion = historyVersion;
+            this.availabilityVersion = availabilityVersion;
+            this.strategyVersion = strategyVersion;
+            this.books = books;
+        }
+    }
+
+    public RecommendationCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RecommendationCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Versions are read before computing, so a change that races with the computation leaves an entry that
+    // already looks stale to the next lookup.
+    public List<Book> getRecommendations(Patron patron, RecommendationSystem recommendationSystem, Inventory inventory) {
+        long historyVersion = patron.getHistoryVersion();
+        long strategyVersion = recommendationSystem.getVersion();
+        InventorySnapshot snapshot = inventory.getSnapshot();
+        Key key = new Key(patron, recommendationSystem);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.historyVersion == historyVersion && entry.strategyVersion == strategyVersion
+                && entry.availabilityVersion == snapshot.getAvailabilityVersion()) {
+            hits.incrementAndGet();
+            return entry.books;
+        }
+        misses.incrementAndGet();
+        List<Book> books = Collections.unmodifiableList(new ArrayList<>(
+                recommendationSystem.getRecommendations(patron, snapshot.getAvailableBooks())));
+        synchronized (entries) {
+            entries.put(key, new Entry(historyVersion, snapshot.getAvailabilityVersion(), strategyVersion, books));
+        }
+        return books;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
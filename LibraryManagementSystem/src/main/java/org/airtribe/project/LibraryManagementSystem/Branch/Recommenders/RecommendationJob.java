@@ -0,0 +1,55 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+public class RecommendationJob {
+    private static final Logger logger = LogManager.getLogger(RecommendationJob.class);
+
+    private final RecommendationSystem recommendationSystem;
+    private final int parallelism;
+
+    public RecommendationJob(RecommendationSystem recommendationSystem) {
+        this(recommendationSystem, Runtime.getRuntime().availableProcessors());
+    }
+
+    public RecommendationJob(RecommendationSystem recommendationSystem, int parallelism) {
+        this.recommendationSystem = recommendationSystem;
+        this.parallelism = parallelism;
+    }
+
+    public RecommendationStore run(Collection<Branch> branches, Collection<Patron> patrons) {
+        RecommendationStore store = new RecommendationStore();
+        run(branches, patrons, store);
+        return store;
+    }
+
+    public void run(Collection<Branch> branches, Collection<Patron> patrons, RecommendationStore store) {
+        long start = System.nanoTime();
+        List<Patron> patronList = new ArrayList<>(patrons);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> branches.parallelStream().forEach(branch -> {
+                Set<Book> snapshot = branch.getInventory().getSnapshot().getAvailableBooks();
+                patronList.parallelStream().forEach(patron ->
+                        store.put(patron.getPatronId(), branch.getBranchId(), recommendationSystem.getRecommendations(patron, snapshot)));
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recommendation job was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Recommendation job failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        logger.info("Recommendation job computed {} patron(s) x {} branch(es) in {} ms with parallelism {}",
+                patronList.size(), branches.size(), (System.nanoTime() - start) / 1_000_000, parallelism);
+    }
+}
@@ -0,0 +1,55 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RecommendationStore {
+    private static final long[] NO_RECOMMENDATIONS = new long[0];
+
+    private final Map<Long, long[]> recommendations = new ConcurrentHashMap<>();
+
+    public void put(int patronId, int branchId, List<Book> books) {
+        long[] isbns = new long[books.size()];
+        for (int i = 0; i < isbns.length; i++) {
+            isbns[i] = books.get(i).getIsbn();
+        }
+        recommendations.put(key(patronId, branchId), isbns);
+    }
+
+    public long[] getRecommendedIsbns(int patronId, int branchId) {
+        return recommendations.getOrDefault(key(patronId, branchId), NO_RECOMMENDATIONS).clone();
+    }
+
+    public List<Book> getRecommendations(int patronId, int branchId) {
+        long[] isbns = recommendations.getOrDefault(key(patronId, branchId), NO_RECOMMENDATIONS);
+        List<Book> books = new ArrayList<>(isbns.length);
+        for (long isbn : isbns) {
+            Book book = BookRegistry.getInstance().getBook(isbn);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    public boolean contains(int patronId, int branchId) {
+        return recommendations.containsKey(key(patronId, branchId));
+    }
+
+    public int size() {
+        return recommendations.size();
+    }
+
+    public void clear() {
+        recommendations.clear();
+    }
+
+    private static long key(int patronId, int branchId) {
+        return ((long) patronId << 32) | (branchId & 0xFFFFFFFFL);
+    }
+}
@@ -1,11 +1,35 @@
 package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
 
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
 import org.airtribe.project.LibraryManagementSystem.Branch.Inventory;
 import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+import java.util.Set;
+
 public interface RecommendationSystem {
     static final Logger logger = LogManager.getLogger(RecommendationSystem.class);
-    void displayRecommendations(Patron patron, Inventory inventory);
+    void displayRecommendations(List<Book> recommendations);
+    List<Book> getRecommendations(Patron patron, Set<Book> availableBooks);
+
+    default void displayRecommendations(Patron patron, Inventory inventory) {
+        displayRecommendations(getRecommendations(patron, inventory.getAvailableBooks()));
+    }
+
+    // Strategies whose results depend on more than the patron's own history and the available books
+    // (e.g. other patrons' loans) bump this whenever that shared state changes; see RecommendationCache.
+    default long getVersion() {
+        return 0;
+    }
+
+    static void displayBooks(List<Book> books, String notFoundMessage) {
+        for (Book book : books) {
+            logger.info('\t' + "\tBook Title: {} Author: {} Genre: {}", book.getTitle(), book.getAuthor(), book.getGenre());
+        }
+        if (books.isEmpty()) {
+            logger.info('\t' + notFoundMessage);
+        }
+    }
 }
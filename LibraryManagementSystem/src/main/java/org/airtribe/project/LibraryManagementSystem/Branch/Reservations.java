@@ -4,24 +4,31 @@ import org.airtribe.project.LibraryManagementSystem.Book.Book;
 import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 class Reservations {
-    private Map<Book, Set<Patron>> reservations = new HashMap<>();
+    private final Map<Book, Set<Patron>> reservations = new ConcurrentHashMap<>();
     protected void addObserver(Patron patron, Book book) {
-        Set<Patron> patrons = reservations.getOrDefault(book, new HashSet<>());
-        patrons.add(patron);
-        reservations.put(book, patrons);
+        reservations.computeIfAbsent(book, k -> ConcurrentHashMap.newKeySet()).add(patron);
     }
 
     protected void removeObserver(Book book, Patron patron) {
-        Set<Patron> patrons = reservations.get(book);
-        if(patrons == null) {
-            return;
-        }
-        if (patrons.contains(patron)){
+        reservations.computeIfPresent(book, (k, patrons) -> {
             patrons.remove(patron);
+            return patrons.isEmpty() ? null : patrons;
+        });
+    }
+
+    protected int getWaitlistSize(Book book) {
+        Set<Patron> patrons = reservations.get(book);
+        return patrons == null ? 0 : patrons.size();
+    }
+
+    protected void forEach(BiConsumer<Book, Set<Patron>> consumer) {
+        for (Map.Entry<Book, Set<Patron>> entry : reservations.entrySet()) {
+            consumer.accept(entry.getKey(), entry.getValue());
         }
-        reservations.put(book, patrons);
     }
 
     protected void notifyObservers(Book book, boolean isAvailable, Branch branch) {
@@ -0,0 +1,143 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.TitleAnalyzer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Title keywords are the TitleAnalyzer token ids of the title, so stop words are never indexed.
+class SearchIndex {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final TitleAnalyzer titleAnalyzer = TitleAnalyzer.getInstance();
+    private final Map<String, Set<Book>> booksByTitle = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Book>> booksByTitleKeyword = new ConcurrentHashMap<>();
+    private final Map<String, Set<Book>> booksByAuthor = new ConcurrentHashMap<>();
+    private final FuzzyIndex fuzzyTitles = new FuzzyIndex();
+    private final FuzzyIndex fuzzyAuthors = new FuzzyIndex();
+
+    protected void addBook(Book book) {
+        index(booksByTitle, normalize(book.getTitle()), book, fuzzyTitles);
+        index(booksByAuthor, normalize(book.getAuthor()), book, fuzzyAuthors);
+        for (int tokenId : titleAnalyzer.getTitleTokenIds(book)) {
+            booksByTitleKeyword.compute(tokenId, (id, books) -> {
+                Set<Book> indexed = books == null ? ConcurrentHashMap.newKeySet() : books;
+                indexed.add(book);
+                return indexed;
+            });
+        }
+    }
+
+    protected void removeBook(Book book) {
+        unindex(booksByTitle, normalize(book.getTitle()), book, fuzzyTitles);
+        unindex(booksByAuthor, normalize(book.getAuthor()), book, fuzzyAuthors);
+        for (int tokenId : titleAnalyzer.getTitleTokenIds(book)) {
+            booksByTitleKeyword.computeIfPresent(tokenId, (id, books) -> {
+                books.remove(book);
+                return books.isEmpty() ? null : books;
+            });
+        }
+    }
+
+    protected Set<Book> findByTitle(String title) {
+        return lookup(booksByTitle, normalize(title));
+    }
+
+    protected Set<Book> findByTitleKeyword(String keyword) {
+        return lookup(booksByTitleKeyword, titleAnalyzer.getTokenId(normalize(keyword)));
+    }
+
+    protected Set<Book> findByAuthor(String author) {
+        return lookup(booksByAuthor, normalize(author));
+    }
+
+    protected List<Book> fuzzyFindByTitle(String title, int maxDistance, int limit) {
+        return fuzzyFind(normalize(title), maxDistance, limit, true, false);
+    }
+
+    protected List<Book> fuzzyFindByAuthor(String author, int maxDistance, int limit) {
+        return fuzzyFind(normalize(author), maxDistance, limit, false, true);
+    }
+
+    protected List<Book> fuzzyFind(String parameter, int maxDistance, int limit) {
+        return fuzzyFind(normalize(parameter), maxDistance, limit, true, true);
+    }
+
+    // Books of the closest titles and authors first; on equal distance titles rank before authors.
+    private List<Book> fuzzyFind(String query, int maxDistance, int limit, boolean byTitle, boolean byAuthor) {
+        List<Book> books = new ArrayList<>();
+        if (query.isEmpty()) {
+            return books;
+        }
+        List<FuzzyIndex.Match> titles = byTitle ? fuzzyTitles.search(query, maxDistance, limit) : Collections.emptyList();
+        List<FuzzyIndex.Match> authors = byAuthor ? fuzzyAuthors.search(query, maxDistance, limit) : Collections.emptyList();
+        Set<Book> seen = new HashSet<>();
+        for (int distance = 0; distance <= maxDistance && books.size() < limit; distance++) {
+            collect(titles, booksByTitle, distance, limit, books, seen);
+            collect(authors, booksByAuthor, distance, limit, books, seen);
+        }
+        return books;
+    }
+
+    private static void collect(List<FuzzyIndex.Match> matches, Map<String, Set<Book>> index, int distance, int limit,
+                                List<Book> books, Set<Book> seen) {
+        for (FuzzyIndex.Match match : matches) {
+            if (match.getDistance() != distance) {
+                continue;
+            }
+            for (Book book : index.getOrDefault(match.getTerm(), Collections.emptySet())) {
+                if (books.size() == limit) {
+                    return;
+                }
+                if (seen.add(book)) {
+                    books.add(book);
+                }
+            }
+        }
+    }
+
+    private static void index(Map<String, Set<Book>> index, String key, Book book, FuzzyIndex fuzzyIndex) {
+        if (key.isEmpty()) {
+            return;
+        }
+        index.compute(key, (k, books) -> {
+            Set<Book> indexed = books;
+            if (indexed == null) {
+                indexed = ConcurrentHashMap.newKeySet();
+                if (fuzzyIndex != null) {
+                    fuzzyIndex.add(k);
+                }
+            }
+            indexed.add(book);
+            return indexed;
+        });
+    }
+
+    private static void unindex(Map<String, Set<Book>> index, String key, Book book, FuzzyIndex fuzzyIndex) {
+        index.computeIfPresent(key, (k, books) -> {
+            books.remove(book);
+            if (books.isEmpty()) {
+                if (fuzzyIndex != null) {
+                    fuzzyIndex.remove(k);
+                }
+                return null;
+            }
+            return books;
+        });
+    }
+
+    // A read-only view of the live postings: books added or removed later show up in it.
+    private static <K> Set<Book> lookup(Map<K, Set<Book>> index, K key) {
+        Set<Book> books = index.get(key);
+        return books == null ? Collections.emptySet() : Collections.unmodifiableSet(books);
+    }
+
+    protected static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
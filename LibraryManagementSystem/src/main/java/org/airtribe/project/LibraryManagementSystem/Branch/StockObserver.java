@@ -0,0 +1,9 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+
+public interface StockObserver {
+    void onStockChanged(Book book, int quantity);
+
+    void onBookRemoved(Book book);
+}
@@ -0,0 +1,32 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+class StripedLocks {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    protected StripedLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    protected StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    protected ReentrantLock lockFor(long isbn) {
+        return locks[stripe(isbn)];
+    }
+
+    protected int stripe(long isbn) {
+        int hash = Long.hashCode(isbn);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -4,19 +4,20 @@ import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
 import org.airtribe.project.LibraryManagementSystem.Book.Book;
 
 import java.util.Date;
-import java.util.UUID;
 
 public class Token {
-    private final UUID tokenId;
+    private final long tokenId;
     private final Patron patron;
     private final Book book;
-    private final Date issueDate;
+    private final long issuedAt;
+    private final long dueAt;
 
-    protected Token(Patron patron, Book book) {
-        this.tokenId = UUID.randomUUID();
+    protected Token(long tokenId, Patron patron, Book book, long issuedAt, long dueAt) {
+        this.tokenId = tokenId;
         this.patron = patron;
         this.book = book;
-        this.issueDate = new Date();
+        this.issuedAt = issuedAt;
+        this.dueAt = dueAt;
     }
 
     public Book getBook() {
@@ -27,11 +28,39 @@ public class Token {
         return patron;
     }
 
-    public UUID getTokenId() {
+    public long getTokenId() {
         return tokenId;
     }
 
     public Date getIssueDate() {
-        return issueDate;
+        return new Date(issuedAt);
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Date getDueDate() {
+        return new Date(dueAt);
+    }
+
+    public long getDueAt() {
+        return dueAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Token)) {
+            return false;
+        }
+        return tokenId == ((Token) o).tokenId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(tokenId);
     }
 }
@@ -0,0 +1,64 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+
+import java.util.Collections;
+import java.util.List;
+
+public class TransferPlan {
+    private final List<Transfer> transfers;
+    private final long unmetBefore;
+    private final long unmetAfter;
+
+    protected TransferPlan(List<Transfer> transfers, long unmetBefore, long unmetAfter) {
+        this.transfers = Collections.unmodifiableList(transfers);
+        this.unmetBefore = unmetBefore;
+        this.unmetAfter = unmetAfter;
+    }
+
+    public List<Transfer> getTransfers() {
+        return transfers;
+    }
+
+    public long getUnmetBefore() {
+        return unmetBefore;
+    }
+
+    public long getUnmetAfter() {
+        return unmetAfter;
+    }
+
+    public boolean isEmpty() {
+        return transfers.isEmpty();
+    }
+
+    public static class Transfer {
+        private final Book book;
+        private final Branch source;
+        private final Branch target;
+        private final int quantity;
+
+        protected Transfer(Book book, Branch source, Branch target, int quantity) {
+            this.book = book;
+            this.source = source;
+            this.target = target;
+            this.quantity = quantity;
+        }
+
+        public Book getBook() {
+            return book;
+        }
+
+        public Branch getSource() {
+            return source;
+        }
+
+        public Branch getTarget() {
+            return target;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
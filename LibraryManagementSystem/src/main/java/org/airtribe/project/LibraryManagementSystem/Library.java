@@ -3,8 +3,13 @@ package org.airtribe.project.LibraryManagementSystem;
 import org.airtribe.project.LibraryManagementSystem.Book.Book;
 import org.airtribe.project.LibraryManagementSystem.Book.BookBuilder;
 import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.NotificationDispatcher;
+import org.airtribe.project.LibraryManagementSystem.Branch.OverdueScheduler;
 import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.AuthorRecommendation;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.CoBorrowRecommendation;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.CollaborativeRecommendation;
 import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.GenreRecommendation;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.HybridRecommendation;
 import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.TitleRecommendation;
 import org.airtribe.project.LibraryManagementSystem.Branch.Token;
 import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
@@ -20,6 +25,32 @@ public class Library {
         Branch branch2 = new Branch(54322, "Overseas Branch", "Houston");
         Branch branch3 = new Branch(54323, "Regional Branch", "Ranchi");
 
+        LibraryCatalog catalog = new LibraryCatalog();
+        catalog.registerBranch(branch1);
+        catalog.registerBranch(branch2);
+        catalog.registerBranch(branch3);
+
+        CoBorrowRecommendation coBorrowRecommendation = new CoBorrowRecommendation();
+        branch1.addLoanObserver(coBorrowRecommendation);
+        branch2.addLoanObserver(coBorrowRecommendation);
+        branch3.addLoanObserver(coBorrowRecommendation);
+
+        CollaborativeRecommendation collaborativeRecommendation = new CollaborativeRecommendation();
+        branch1.addLoanObserver(collaborativeRecommendation);
+        branch2.addLoanObserver(collaborativeRecommendation);
+        branch3.addLoanObserver(collaborativeRecommendation);
+
+        HybridRecommendation hybridRecommendation = new HybridRecommendation();
+        branch1.addLoanObserver(hybridRecommendation);
+        branch2.addLoanObserver(hybridRecommendation);
+        branch3.addLoanObserver(hybridRecommendation);
+
+        OverdueScheduler overdueScheduler = new OverdueScheduler();
+        branch1.setOverdueScheduler(overdueScheduler);
+        branch2.setOverdueScheduler(overdueScheduler);
+        branch3.setOverdueScheduler(overdueScheduler);
+        overdueScheduler.start();
+
         Book book1 = new BookBuilder()
                 .setIsbn(1234567890)
                 .setTitle("Clean Code")
@@ -118,9 +149,17 @@ public class Library {
 
         branch1.searchBook("Data Structures and Algorithms");
 
+        catalog.displayAvailability(book3);
+
         branch1.recommendBooks(patron1, new AuthorRecommendation());
         branch3.recommendBooks(patron1, new GenreRecommendation());
         branch1.recommendBooks(patron1, new TitleRecommendation());
+        branch2.recommendBooks(patron2, coBorrowRecommendation);
+        branch2.recommendBooks(patron2, collaborativeRecommendation);
+        branch1.recommendBooks(patron1, hybridRecommendation);
+
+        overdueScheduler.shutdown();
+        NotificationDispatcher.getDefault().shutdown();
 
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package org.airtribe.project.LibraryManagementSystem;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.StockObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LibraryCatalog {
+    private static final Logger logger = LogManager.getLogger(LibraryCatalog.class);
+
+    private final Map<Integer, Branch> branches = new ConcurrentHashMap<>();
+    private final Map<Integer, StockObserver> stockObservers = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Integer, Integer>> availability = new ConcurrentHashMap<>();
+
+    public void registerBranch(Branch branch) {
+        if (branches.putIfAbsent(branch.getBranchId(), branch) != null) {
+            return;
+        }
+        StockObserver observer = new BranchStockObserver(branch.getBranchId());
+        stockObservers.put(branch.getBranchId(), observer);
+        branch.getInventory().addStockObserver(observer);
+    }
+
+    public void unregisterBranch(Branch branch) {
+        if (!branches.remove(branch.getBranchId(), branch)) {
+            return;
+        }
+        StockObserver observer = stockObservers.remove(branch.getBranchId());
+        branch.getInventory().removeStockObserver(observer);
+        for (Map<Integer, Integer> branchQuantities : availability.values()) {
+            branchQuantities.remove(branch.getBranchId());
+        }
+    }
+
+    public Branch getBranch(int branchId) {
+        return branches.get(branchId);
+    }
+
+    public Collection<Branch> getBranches() {
+        return Collections.unmodifiableCollection(branches.values());
+    }
+
+    public Map<Integer, Integer> getAvailability(Book book) {
+        Map<Integer, Integer> branchQuantities = availability.get(book.getIsbn());
+        if (branchQuantities == null) {
+            return Collections.emptyMap();
+        }
+        return new HashMap<>(branchQuantities);
+    }
+
+    public List<Branch> findBranchesWithBook(Book book) {
+        List<Branch> available = new ArrayList<>();
+        for (Integer branchId : getAvailability(book).keySet()) {
+            Branch branch = branches.get(branchId);
+            if (branch != null) {
+                available.add(branch);
+            }
+        }
+        return available;
+    }
+
+    public void displayAvailability(Book book) {
+        logger.info("Library Availability - Book: {}", book.getTitle());
+        Map<Integer, Integer> branchQuantities = getAvailability(book);
+        if (branchQuantities.isEmpty()) {
+            logger.info('\t' + "Book is not available in any branch\n");
+            return;
+        }
+        for (Map.Entry<Integer, Integer> entry : branchQuantities.entrySet()) {
+            Branch branch = branches.get(entry.getKey());
+            if (branch != null) {
+                logger.info("\tBranch: {}\tBranch ID: {}\tQuantity: {}", branch.getBranchName(), branch.getBranchId(), entry.getValue());
+            }
+        }
+    }
+
+    private class BranchStockObserver implements StockObserver {
+        private final int branchId;
+
+        private BranchStockObserver(int branchId) {
+            this.branchId = branchId;
+        }
+
+        @Override
+        public void onStockChanged(Book book, int quantity) {
+            if (quantity > 0) {
+                availability.compute(book.getIsbn(), (isbn, branchQuantities) -> {
+                    Map<Integer, Integer> updated = branchQuantities == null ? new ConcurrentHashMap<>() : branchQuantities;
+                    updated.put(branchId, quantity);
+                    return updated;
+                });
+                return;
+            }
+            onBookRemoved(book);
+        }
+
+        @Override
+        public void onBookRemoved(Book book) {
+            availability.computeIfPresent(book.getIsbn(), (isbn, branchQuantities) -> {
+                branchQuantities.remove(branchId);
+                return branchQuantities.isEmpty() ? null : branchQuantities;
+            });
+        }
+    }
+}
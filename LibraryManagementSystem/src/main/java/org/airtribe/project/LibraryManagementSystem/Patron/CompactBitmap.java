@@ -0,0 +1,207 @@
+package org.airtribe.project.LibraryManagementSystem.Patron;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Roaring-style set of non-negative ints (book ordinals): the high 16 bits pick a container, the low 16 bits
+// live either in a sorted char[] (up to 4096 values, 2 bytes each) or in a 1024-long bitmap once that is smaller.
+// Small sets (most patron histories) skip the containers altogether and are one sorted int[], since a container
+// per scattered ordinal would cost more than the values themselves.
+// Reads are lock-free against an immutable state; adds are serialized and copy the one container they change.
+public class CompactBitmap {
+    private static final int SMALL_LIMIT = 128;
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 16 >>> 6;
+
+    private volatile State state = State.EMPTY;
+
+    private static final class State {
+        private static final State EMPTY = new State(new int[0]);
+
+        // Set while the bitmap is small, in which case keys and containers are null.
+        private final int[] small;
+        // keys[i] is the high half shared by containers[i], which is a char[] or a long[BITMAP_WORDS].
+        private final char[] keys;
+        private final Object[] containers;
+        private final int cardinality;
+
+        private State(int[] small) {
+            this.small = small;
+            this.keys = null;
+            this.containers = null;
+            this.cardinality = small.length;
+        }
+
+        private State(char[] keys, Object[] containers, int cardinality) {
+            this.small = null;
+            this.keys = keys;
+            this.containers = containers;
+            this.cardinality = cardinality;
+        }
+    }
+
+    public boolean contains(int value) {
+        State current = state;
+        if (current.small != null) {
+            return Arrays.binarySearch(current.small, value) >= 0;
+        }
+        int index = Arrays.binarySearch(current.keys, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        return contains(current.containers[index], (char) value);
+    }
+
+    private static boolean contains(Object container, char low) {
+        if (container instanceof long[]) {
+            return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, low) >= 0;
+    }
+
+    public synchronized boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        State current = state;
+        if (current.small != null) {
+            int position = Arrays.binarySearch(current.small, value);
+            if (position >= 0) {
+                return false;
+            }
+            if (current.small.length == SMALL_LIMIT) {
+                state = toContainers(current.small);
+            } else {
+                position = -position - 1;
+                int[] small = new int[current.small.length + 1];
+                System.arraycopy(current.small, 0, small, 0, position);
+                System.arraycopy(current.small, position, small, position + 1, current.small.length - position);
+                small[position] = value;
+                state = new State(small);
+                return true;
+            }
+            current = state;
+        }
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(current.keys, high);
+        if (index < 0) {
+            index = -index - 1;
+            char[] keys = new char[current.keys.length + 1];
+            Object[] containers = new Object[keys.length];
+            System.arraycopy(current.keys, 0, keys, 0, index);
+            System.arraycopy(current.keys, index, keys, index + 1, current.keys.length - index);
+            System.arraycopy(current.containers, 0, containers, 0, index);
+            System.arraycopy(current.containers, index, containers, index + 1, current.keys.length - index);
+            keys[index] = high;
+            containers[index] = new char[]{low};
+            state = new State(keys, containers, current.cardinality + 1);
+            return true;
+        }
+        Object container = current.containers[index];
+        if (contains(container, low)) {
+            return false;
+        }
+        Object[] containers = current.containers.clone();
+        containers[index] = with(container, low);
+        state = new State(current.keys, containers, current.cardinality + 1);
+        return true;
+    }
+
+    private static State toContainers(int[] small) {
+        int containerCount = 0;
+        for (int i = 0; i < small.length; i++) {
+            if (i == 0 || small[i] >>> 16 != small[i - 1] >>> 16) {
+                containerCount++;
+            }
+        }
+        char[] keys = new char[containerCount];
+        Object[] containers = new Object[containerCount];
+        int start = 0;
+        for (int container = 0; container < containerCount; container++) {
+            int end = start;
+            while (end < small.length && small[end] >>> 16 == small[start] >>> 16) {
+                end++;
+            }
+            char[] values = new char[end - start];
+            for (int i = start; i < end; i++) {
+                values[i - start] = (char) small[i];
+            }
+            keys[container] = (char) (small[start] >>> 16);
+            containers[container] = values;
+            start = end;
+        }
+        return new State(keys, containers, small.length);
+    }
+
+    private static Object with(Object container, char low) {
+        if (container instanceof long[]) {
+            long[] words = ((long[]) container).clone();
+            words[low >>> 6] |= 1L << low;
+            return words;
+        }
+        char[] values = (char[]) container;
+        if (values.length == ARRAY_LIMIT) {
+            long[] words = new long[BITMAP_WORDS];
+            for (char existing : values) {
+                words[existing >>> 6] |= 1L << existing;
+            }
+            words[low >>> 6] |= 1L << low;
+            return words;
+        }
+        int position = -Arrays.binarySearch(values, low) - 1;
+        char[] updated = new char[values.length + 1];
+        System.arraycopy(values, 0, updated, 0, position);
+        System.arraycopy(values, position, updated, position + 1, values.length - position);
+        updated[position] = low;
+        return updated;
+    }
+
+    public int size() {
+        return state.cardinality;
+    }
+
+    public boolean isEmpty() {
+        return state.cardinality == 0;
+    }
+
+    // Visits the values in ascending order as of one consistent state.
+    public void forEach(IntConsumer action) {
+        forEach(state, action);
+    }
+
+    private static void forEach(State current, IntConsumer action) {
+        if (current.small != null) {
+            for (int value : current.small) {
+                action.accept(value);
+            }
+            return;
+        }
+        for (int i = 0; i < current.keys.length; i++) {
+            int high = current.keys[i] << 16;
+            Object container = current.containers[i];
+            if (container instanceof long[]) {
+                long[] words = (long[]) container;
+                for (int word = 0; word < words.length; word++) {
+                    long bits = words[word];
+                    while (bits != 0) {
+                        action.accept(high | (word << 6) | Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                for (char low : (char[]) container) {
+                    action.accept(high | low);
+                }
+            }
+        }
+    }
+
+    public int[] toArray() {
+        State current = state;
+        int[] values = new int[current.cardinality];
+        int[] next = new int[1];
+        forEach(current, value -> values[next[0]++] = value);
+        return values;
+    }
+}
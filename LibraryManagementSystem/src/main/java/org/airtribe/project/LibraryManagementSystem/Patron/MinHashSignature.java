@@ -0,0 +1,93 @@
+package org.airtribe.project.LibraryManagementSystem.Patron;
+
+import java.util.Arrays;
+
+// MinHash of a patron's borrow history (book ordinals): the minimum of 32 independent hashes over the history,
+// grouped into 16 bands of 2 rows for locality-sensitive bucketing. Two patrons agree on a row with probability
+// equal to the Jaccard similarity of their histories, so they share at least one band with probability
+// 1 - (1 - J^2)^16 (about 0.5 at J = 0.2 and 0.97 at J = 0.45).
+// Updated in O(32) per first read; readers get an immutable array, replaced only when a minimum changes.
+public class MinHashSignature {
+    public static final int HASHES = 32;
+    public static final int ROWS = 2;
+    public static final int BANDS = HASHES / ROWS;
+
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < HASHES; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix(seed);
+        }
+    }
+
+    private volatile int[] minimums;
+
+    // True when the signature changed, i.e. the patron's LSH buckets need refreshing.
+    protected synchronized boolean record(int ordinal) {
+        int[] current = minimums;
+        int[] updated = null;
+        for (int i = 0; i < HASHES; i++) {
+            int hash = (int) (mix(ordinal ^ SEEDS[i]) >>> 32);
+            if (current == null || Integer.compareUnsigned(hash, current[i]) < 0) {
+                if (updated == null) {
+                    updated = current == null ? empty() : current.clone();
+                }
+                updated[i] = hash;
+            }
+        }
+        if (updated == null) {
+            return false;
+        }
+        minimums = updated;
+        return true;
+    }
+
+    // Unsigned maximum in every row, so the first recorded ordinal sets them all.
+    private static int[] empty() {
+        int[] values = new int[HASHES];
+        Arrays.fill(values, -1);
+        return values;
+    }
+
+    public boolean isEmpty() {
+        return minimums == null;
+    }
+
+    // Both rows of each band packed into one key; equal keys mean two signatures agree on the whole band.
+    public long[] getBandKeys() {
+        int[] current = minimums;
+        if (current == null) {
+            return new long[0];
+        }
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            keys[band] = ((long) current[band * ROWS] << 32) | (current[band * ROWS + 1] & 0xFFFFFFFFL);
+        }
+        return keys;
+    }
+
+    // Fraction of matching rows, an unbiased estimate of the Jaccard similarity of the two histories.
+    public double estimateSimilarity(MinHashSignature other) {
+        int[] mine = minimums;
+        int[] theirs = other.minimums;
+        if (mine == null || theirs == null) {
+            return 0;
+        }
+        int matches = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (mine[i] == theirs[i]) {
+                matches++;
+            }
+        }
+        return (double) matches / HASHES;
+    }
+
+    private static long mix(long value) {
+        long hash = value;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -2,7 +2,10 @@ package org.airtribe.project.LibraryManagementSystem.Patron;
 
 import org.airtribe.project.LibraryManagementSystem.Book.Book;
 import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.Token;
 
 public interface Observer {
     void update(Book book, boolean isAvailable, Branch branch);
+    void onOverdue(Token token, Branch branch);
+    void onFine(Token token, long fineAmount, Branch branch);
 }
@@ -1,6 +1,7 @@
 package org.airtribe.project.LibraryManagementSystem.Patron;
 
 import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
 import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
 import org.airtribe.project.LibraryManagementSystem.Branch.Token;
 
@@ -8,6 +9,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Patron implements Observer {
     private static final Logger logger = LogManager.getLogger(Patron.class);
@@ -16,8 +19,14 @@ public class Patron implements Observer {
     private String patronName;
     private String patronAddress;
     private String patronMobile;
-    private final Map<Book, Token> borrowedBooks = new HashMap<>();
-    private final Set<Book> borrowHistory = new HashSet<>();
+    private final Map<Book, Token> borrowedBooks = new ConcurrentHashMap<>();
+    // Ordinals of every book this patron has returned; see Book.getOrdinal(). Ordinals belong to this JVM's
+    // BookRegistry, so the bitmap means nothing to another process: persist or exchange ISBNs instead.
+    private final CompactBitmap borrowHistory = new CompactBitmap();
+    private final PreferenceProfile preferenceProfile = new PreferenceProfile();
+    private final MinHashSignature signature = new MinHashSignature();
+    // Bumped by every borrow and return, the two events that change what can be recommended to this patron.
+    private final AtomicLong historyVersion = new AtomicLong();
 
     public Patron(int patronId, String patronName, String patronAddress, String patronMobile) {
         this.patronId = patronId;
@@ -59,7 +68,7 @@ public class Patron implements Observer {
     }
 
     public boolean hasAlreadyReadTheBook(Book book) {
-        return !borrowHistory.contains(book);
+        return !borrowHistory.contains(book.getOrdinal());
     }
 
     public int getBorrowedBooksCount() {
@@ -68,34 +77,104 @@ public class Patron implements Observer {
 
     public void borrowBook(Book book, Token token) {
         borrowedBooks.put(book, token);
+        historyVersion.incrementAndGet();
     }
 
     public void returnBook(Book book) {
         borrowedBooks.remove(book);
-        borrowHistory.add(book);
+        // Books reach patrons through an Inventory, which registers them; an unregistered book has no ordinal.
+        int ordinal = book.getOrdinal();
+        if (ordinal >= 0 && borrowHistory.add(ordinal)) {
+            signature.record(ordinal);
+        }
+        preferenceProfile.record(book);
+        historyVersion.incrementAndGet();
+    }
+
+    public long getHistoryVersion() {
+        return historyVersion.get();
+    }
+
+    public PreferenceProfile getPreferenceProfile() {
+        return preferenceProfile;
+    }
+
+    public MinHashSignature getSignature() {
+        return signature;
+    }
+
+    public CompactBitmap getBorrowHistoryOrdinals() {
+        return borrowHistory;
+    }
+
+    // A read-only view that resolves ordinals back to the canonical books on iteration, skipping ordinals the
+    // registry no longer knows.
+    public Set<Book> getBorrowHistory() {
+        return new AbstractSet<Book>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Book && borrowHistory.contains(((Book) o).getOrdinal());
+            }
+
+            @Override
+            public Iterator<Book> iterator() {
+                int[] ordinals = borrowHistory.toArray();
+                BookRegistry registry = BookRegistry.getInstance();
+                return new Iterator<Book>() {
+                    private int next;
+                    private Book book = advance();
+
+                    private Book advance() {
+                        while (next < ordinals.length) {
+                            Book known = registry.getBookByOrdinal(ordinals[next++]);
+                            if (known != null) {
+                                return known;
+                            }
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return book != null;
+                    }
+
+                    @Override
+                    public Book next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Book current = book;
+                        book = advance();
+                        return current;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return borrowHistory.size();
+            }
+        };
     }
 
     public Set<String> getPreferredAuthors() {
-        Set<String> preferredAuthors = new HashSet<>();
-        for (Book book : borrowHistory) {
-            preferredAuthors.add(book.getAuthor());
-        }
-        return preferredAuthors;
+        return preferenceProfile.getAuthors();
     }
 
     public Set<String> getPreferredGenres() {
-        Set<String> preferredGenres = new HashSet<>();
-        for (Book book : borrowHistory) {
-            preferredGenres.add(book.getGenre());
-        }
-        return preferredGenres;
+        return preferenceProfile.getGenres();
     }
 
     public Set<String> getPreferredTitles() {
         Set<String> preferredTitles = new HashSet<>();
-        for (Book book : borrowHistory) {
-            preferredTitles.add(book.getTitle());
-        }
+        BookRegistry registry = BookRegistry.getInstance();
+        borrowHistory.forEach(ordinal -> {
+            Book book = registry.getBookByOrdinal(ordinal);
+            if (book != null) {
+                preferredTitles.add(book.getTitle());
+            }
+        });
         return preferredTitles;
     }
 
@@ -111,4 +190,14 @@ public class Patron implements Observer {
             logger.info("Notification to {}: Book {} is not available at Branch: {}", this.getPatronName(), book.getTitle(), branch.getBranchName());
         }
     }
+
+    @Override
+    public void onOverdue(Token token, Branch branch) {
+        logger.info("Notification to {}: Book {} was due on {} at Branch: {}", this.getPatronName(), token.getBook().getTitle(), token.getDueDate(), branch.getBranchName());
+    }
+
+    @Override
+    public void onFine(Token token, long fineAmount, Branch branch) {
+        logger.info("Notification to {}: Fine of {} is due for Book {} at Branch: {}", this.getPatronName(), fineAmount, token.getBook().getTitle(), branch.getBranchName());
+    }
 }
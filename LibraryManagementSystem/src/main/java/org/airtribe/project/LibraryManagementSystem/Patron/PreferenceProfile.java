@@ -0,0 +1,145 @@
+package org.airtribe.project.LibraryManagementSystem.Patron;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.StringDictionary;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Recency decay uses forward decay: each new return is weighted 1/decay times more than the previous one,
+// so older returns never have to be touched. Weights are rescaled once the increment grows too large.
+// Authors and genres are kept as their StringDictionary codes; the String accessors translate at the edge.
+public class PreferenceProfile {
+    private static final double DEFAULT_DECAY = 0.9;
+    private static final double RESCALE_THRESHOLD = 1e100;
+
+    private final double growth;
+    private double increment = 1.0;
+    private final StringDictionary authors = StringDictionary.getAuthors();
+    private final StringDictionary genres = StringDictionary.getGenres();
+    private final Map<Integer, Double> authorWeights = new ConcurrentHashMap<>();
+    private final Map<Integer, Double> genreWeights = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> authorCounts = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> genreCounts = new ConcurrentHashMap<>();
+
+    public PreferenceProfile() {
+        this(DEFAULT_DECAY);
+    }
+
+    public PreferenceProfile(double decay) {
+        if (decay <= 0 || decay > 1) {
+            throw new IllegalArgumentException("Decay must be in (0, 1]");
+        }
+        this.growth = 1 / decay;
+    }
+
+    // O(1) apart from the rescale, a pass over this patron's weights once every ~2,200 returns at the default decay.
+    // The genre is counted as it is at return time; a later Book.updateGenre() does not move earlier weight.
+    protected synchronized void record(Book book) {
+        increment *= growth;
+        if (increment > RESCALE_THRESHOLD) {
+            rescale();
+        }
+        if (book.getAuthorCode() != StringDictionary.NO_CODE) {
+            authorWeights.merge(book.getAuthorCode(), increment, Double::sum);
+            authorCounts.merge(book.getAuthorCode(), 1, Integer::sum);
+        }
+        if (book.getGenreCode() != StringDictionary.NO_CODE) {
+            genreWeights.merge(book.getGenreCode(), increment, Double::sum);
+            genreCounts.merge(book.getGenreCode(), 1, Integer::sum);
+        }
+    }
+
+    private void rescale() {
+        authorWeights.replaceAll((author, weight) -> weight / increment);
+        genreWeights.replaceAll((genre, weight) -> weight / increment);
+        increment = 1.0;
+    }
+
+    public boolean hasAuthor(String author) {
+        return hasAuthorCode(authors.getCode(author));
+    }
+
+    public boolean hasAuthorCode(int authorCode) {
+        return authorCode != StringDictionary.NO_CODE && authorWeights.containsKey(authorCode);
+    }
+
+    public boolean hasGenre(String genre) {
+        return hasGenreCode(genres.getCode(genre));
+    }
+
+    public boolean hasGenreCode(int genreCode) {
+        return genreCode != StringDictionary.NO_CODE && genreWeights.containsKey(genreCode);
+    }
+
+    public double getAuthorWeight(String author) {
+        return getAuthorWeight(authors.getCode(author));
+    }
+
+    public synchronized double getAuthorWeight(int authorCode) {
+        return authorWeights.getOrDefault(authorCode, 0.0) / increment;
+    }
+
+    public double getGenreWeight(String genre) {
+        return getGenreWeight(genres.getCode(genre));
+    }
+
+    public synchronized double getGenreWeight(int genreCode) {
+        return genreWeights.getOrDefault(genreCode, 0.0) / increment;
+    }
+
+    public int getAuthorCount(String author) {
+        return authorCounts.getOrDefault(authors.getCode(author), 0);
+    }
+
+    public int getGenreCount(String genre) {
+        return genreCounts.getOrDefault(genres.getCode(genre), 0);
+    }
+
+    public Set<Integer> getAuthorCodes() {
+        return Collections.unmodifiableSet(authorWeights.keySet());
+    }
+
+    public Set<Integer> getGenreCodes() {
+        return Collections.unmodifiableSet(genreWeights.keySet());
+    }
+
+    public Set<String> getAuthors() {
+        return decode(authorWeights.keySet(), authors);
+    }
+
+    public Set<String> getGenres() {
+        return decode(genreWeights.keySet(), genres);
+    }
+
+    public synchronized List<String> getTopAuthors(int limit) {
+        return top(authorWeights, authors, limit);
+    }
+
+    public synchronized List<String> getTopGenres(int limit) {
+        return top(genreWeights, genres, limit);
+    }
+
+    private static Set<String> decode(Set<Integer> codes, StringDictionary dictionary) {
+        Set<String> values = new HashSet<>();
+        for (int code : codes) {
+            values.add(dictionary.getValue(code));
+        }
+        return Collections.unmodifiableSet(values);
+    }
+
+    private static List<String> top(Map<Integer, Double> weights, StringDictionary dictionary, int limit) {
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Integer, Double> entry : weights.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        LinkedList<String> top = new LinkedList<>();
+        while (!heap.isEmpty()) {
+            top.addFirst(dictionary.getValue(heap.poll().getKey()));
+        }
+        return top;
+    }
+}
@@ -0,0 +1,231 @@
+package org.airtribe.project.LibraryManagementSystem.Simulator;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookBuilder;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.NotificationDispatcher;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.AuthorRecommendation;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.CoBorrowRecommendation;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.GenreRecommendation;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.RecommendationSystem;
+import org.airtribe.project.LibraryManagementSystem.Branch.Recommenders.TitleRecommendation;
+import org.airtribe.project.LibraryManagementSystem.Branch.Token;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Drives a weighted mix of desk operations against synthetic branches from many threads and reports
+// throughput and latency percentiles per operation. Run with: gradle simulate -PsimulatorArgs="threads=32 duration=60"
+public class LoadSimulator {
+    private static final Logger logger = LogManager.getLogger(LoadSimulator.class);
+    private static final long FIRST_ISBN = 9_790_000_000_000L;
+    private static final String[] WORDS = {
+            "river", "night", "garden", "war", "peace", "city", "star", "light", "ocean", "mountain",
+            "story", "secret", "life", "world", "code", "design", "patterns", "data", "history", "science",
+            "shadow", "empire", "journey", "winter", "summer", "machine", "learning", "kingdom", "silent", "storm"};
+
+    private final SimulationConfig config;
+    private final List<Branch> branches = new ArrayList<>();
+    private final List<Book> books = new ArrayList<>();
+    private final List<Patron> patrons = new ArrayList<>();
+    private final List<RecommendationSystem> recommenders = new ArrayList<>();
+    private final Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private volatile boolean running;
+    private volatile boolean recording;
+    private long elapsedNanos;
+
+    private static class Loan {
+        private final Branch branch;
+        private final Token token;
+
+        private Loan(Branch branch, Token token) {
+            this.branch = branch;
+            this.token = token;
+        }
+    }
+
+    public LoadSimulator(SimulationConfig config) {
+        this.config = config;
+        this.operations = Operation.values();
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.getWeight(operations[i]);
+            cumulativeWeights[i] = total;
+            histograms.put(operations[i], new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadSimulator simulator = new LoadSimulator(SimulationConfig.fromArgs(args));
+        simulator.setUp();
+        simulator.run();
+        simulator.report();
+        NotificationDispatcher.getDefault().flush();
+        System.exit(0);
+    }
+
+    public void setUp() {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+        int authors = Math.max(1, config.getBooks() / 20);
+        for (int i = 0; i < config.getBooks(); i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 2 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    title.append(' ');
+                }
+                title.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            books.add(new BookBuilder()
+                    .setIsbn(FIRST_ISBN + i)
+                    .setTitle(title.toString())
+                    .setAuthor("Author " + random.nextInt(authors))
+                    .setPublicationYear(1900 + random.nextInt(125))
+                    .setGenre("Genre " + random.nextInt(24))
+                    .build());
+        }
+
+        CoBorrowRecommendation coBorrowRecommendation = new CoBorrowRecommendation();
+        for (int b = 0; b < config.getBranches(); b++) {
+            Branch branch = new Branch(90_000 + b, "Simulated Branch " + b, "Anywhere");
+            branch.addLoanObserver(coBorrowRecommendation);
+            for (Book book : books) {
+                branch.addBook(book, config.getCopies());
+            }
+            branches.add(branch);
+        }
+        recommenders.add(new AuthorRecommendation());
+        recommenders.add(new GenreRecommendation());
+        recommenders.add(new TitleRecommendation());
+        recommenders.add(coBorrowRecommendation);
+
+        // A short borrow history per patron, so that the recommenders have preferences to work with.
+        for (int p = 0; p < config.getPatrons(); p++) {
+            Patron patron = new Patron(p, "Patron " + p, "Address", "9999999999");
+            Branch branch = branches.get(random.nextInt(branches.size()));
+            for (int i = 0; i < config.getHistory(); i++) {
+                Token token = branch.checkoutBook(books.get(random.nextInt(books.size())), patron);
+                if (token != null) {
+                    branch.returnBook(token);
+                }
+            }
+            patrons.add(patron);
+        }
+        logger.info("Simulation set up in {} ms: {}", (System.nanoTime() - start) / 1_000_000, config);
+    }
+
+    public void run() throws InterruptedException {
+        ExecutorService executor = newExecutor();
+        running = true;
+        for (int worker = 0; worker < config.getThreads(); worker++) {
+            long seed = config.getSeed() * 31 + worker;
+            executor.execute(() -> work(new SplittableRandom(seed)));
+        }
+        TimeUnit.SECONDS.sleep(config.getWarmupSeconds());
+        long start = System.nanoTime();
+        recording = true;
+        TimeUnit.SECONDS.sleep(config.getDurationSeconds());
+        recording = false;
+        elapsedNanos = System.nanoTime() - start;
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            logger.warn("Simulator workers did not stop within a minute");
+            executor.shutdownNow();
+        }
+    }
+
+    // Virtual threads when requested and the JVM has them (21+), otherwise one platform thread per worker.
+    private ExecutorService newExecutor() {
+        if (config.isVirtualThreads()) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads are not available on Java {}, using platform threads", Runtime.version().feature());
+            }
+        }
+        return Executors.newFixedThreadPool(config.getThreads());
+    }
+
+    private void work(SplittableRandom random) {
+        Deque<Loan> loans = new ArrayDeque<>();
+        while (running) {
+            Operation operation = nextOperation(random);
+            if (operation == Operation.RETURN && loans.isEmpty()) {
+                operation = Operation.CHECKOUT;
+            }
+            Branch branch = branches.get(random.nextInt(branches.size()));
+            Book book = books.get(random.nextInt(books.size()));
+            Patron patron = patrons.get(random.nextInt(patrons.size()));
+            boolean isSuccessful = true;
+            long start = System.nanoTime();
+            switch (operation) {
+                case CHECKOUT: {
+                    Token token = branch.checkoutBook(book, patron);
+                    isSuccessful = token != null;
+                    if (isSuccessful) {
+                        loans.add(new Loan(branch, token));
+                    }
+                    break;
+                }
+                case RETURN: {
+                    Loan loan = loans.poll();
+                    loan.branch.returnBook(loan.token);
+                    break;
+                }
+                case SEARCH:
+                    isSuccessful = !branch.findBooks(random.nextBoolean() ? book.getTitle() : book.getAuthor()).isEmpty();
+                    break;
+                case RESERVE:
+                    branch.reserveBook(book, patron);
+                    break;
+                case RECOMMEND:
+                    branch.getRecommendations(patron, recommenders.get(random.nextInt(recommenders.size())));
+                    break;
+            }
+            long latency = System.nanoTime() - start;
+            if (recording) {
+                histograms.get(operation).record(latency, isSuccessful);
+            }
+        }
+    }
+
+    private Operation nextOperation(SplittableRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public void report() {
+        double seconds = elapsedNanos / 1e9;
+        long total = 0;
+        logger.info(String.format("%-10s %12s %12s %10s %10s %10s %10s %10s", "operation", "count", "ops/s",
+                "p50 us", "p99 us", "p999 us", "max us", "failed"));
+        for (Operation operation : operations) {
+            LatencyHistogram histogram = histograms.get(operation);
+            total += histogram.getCount();
+            logger.info(String.format("%-10s %12d %12.1f %10.1f %10.1f %10.1f %10.1f %10d", operation,
+                    histogram.getCount(), histogram.getCount() / seconds,
+                    histogram.getPercentile(0.50) / 1e3, histogram.getPercentile(0.99) / 1e3,
+                    histogram.getPercentile(0.999) / 1e3, histogram.getMax() / 1e3, histogram.getFailures()));
+        }
+        logger.info(String.format("%-10s %12d %12.1f", "total", total, total / seconds));
+    }
+
+    public LatencyHistogram getHistogram(Operation operation) {
+        return histograms.get(operation);
+    }
+}
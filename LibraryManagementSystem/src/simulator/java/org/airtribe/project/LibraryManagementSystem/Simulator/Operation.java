@@ -0,0 +1,9 @@
+package org.airtribe.project.LibraryManagementSystem.Simulator;
+
+public enum Operation {
+    CHECKOUT,
+    RETURN,
+    SEARCH,
+    RESERVE,
+    RECOMMEND
+}
@@ -0,0 +1,150 @@
+package org.airtribe.project.LibraryManagementSystem.Simulator;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Command line: key=value pairs, e.g. branches=4 books=100000 patrons=20000 history=5 threads=16 duration=30
+// mix=checkout:30,return:30,search:25,reserve:5,recommend:10 virtualThreads=true
+public class SimulationConfig {
+    private int branches = 4;
+    private int books = 100_000;
+    private int copies = 2;
+    private int patrons = 20_000;
+    private int history = 5;
+    private int threads = Runtime.getRuntime().availableProcessors() * 4;
+    private boolean virtualThreads;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 30;
+    private long seed = 42;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    public SimulationConfig() {
+        mix.put(Operation.CHECKOUT, 30);
+        mix.put(Operation.RETURN, 30);
+        mix.put(Operation.SEARCH, 25);
+        mix.put(Operation.RESERVE, 5);
+        mix.put(Operation.RECOMMEND, 10);
+    }
+
+    public static SimulationConfig fromArgs(String[] args) {
+        SimulationConfig config = new SimulationConfig();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String value = arg.substring(separator + 1).trim();
+            switch (arg.substring(0, separator).trim()) {
+                case "branches":
+                    config.branches = positive(arg, value);
+                    break;
+                case "books":
+                    config.books = positive(arg, value);
+                    break;
+                case "copies":
+                    config.copies = positive(arg, value);
+                    break;
+                case "patrons":
+                    config.patrons = positive(arg, value);
+                    break;
+                case "history":
+                    config.history = Integer.parseInt(value);
+                    break;
+                case "threads":
+                    config.threads = positive(arg, value);
+                    break;
+                case "virtualThreads":
+                    config.virtualThreads = Boolean.parseBoolean(value);
+                    break;
+                case "warmup":
+                    config.warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "duration":
+                    config.durationSeconds = positive(arg, value);
+                    break;
+                case "seed":
+                    config.seed = Long.parseLong(value);
+                    break;
+                case "mix":
+                    config.parseMix(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown simulator option: " + arg);
+            }
+        }
+        return config;
+    }
+
+    private void parseMix(String value) {
+        mix.clear();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got: " + entry);
+            }
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Operation mix needs at least one positive weight: " + value);
+        }
+    }
+
+    private static int positive(String arg, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException("Expected a positive number: " + arg);
+        }
+        return parsed;
+    }
+
+    public int getBranches() {
+        return branches;
+    }
+
+    public int getBooks() {
+        return books;
+    }
+
+    public int getCopies() {
+        return copies;
+    }
+
+    public int getPatrons() {
+        return patrons;
+    }
+
+    public int getHistory() {
+        return history;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWeight(Operation operation) {
+        return Math.max(0, mix.getOrDefault(operation, 0));
+    }
+
+    @Override
+    public String toString() {
+        return "branches=" + branches + " books=" + books + " copies=" + copies + " patrons=" + patrons
+                + " history=" + history + " threads=" + threads + " virtualThreads=" + virtualThreads + " warmup=" + warmupSeconds
+                + "s duration=" + durationSeconds + "s seed=" + seed + " mix=" + mix;
+    }
+}
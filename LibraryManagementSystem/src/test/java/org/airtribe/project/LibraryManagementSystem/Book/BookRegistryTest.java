@@ -0,0 +1,108 @@
+package org.airtribe.project.LibraryManagementSystem.Book;
+
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class BookRegistryTest {
+
+    @Test
+    public void testOrdinalsAreDenseInRegistrationOrder() {
+        BookRegistry registry = BookRegistry.getInstance();
+        for (int i = 0; i < 3_000; i++) {
+            Book book = newBook(isbn(3_000 - i));
+            assertSame(book, registry.register(book));
+            assertEquals(i, book.getOrdinal());
+        }
+        assertEquals(3_000, registry.size());
+        for (int i = 0; i < 3_000; i++) {
+            assertEquals(isbn(3_000 - i), registry.getBookByOrdinal(i).getIsbn());
+        }
+        assertNull(registry.getBookByOrdinal(3_000));
+        assertNull(registry.getBookByOrdinal(-1));
+    }
+
+    @Test
+    public void testCopiesShareTheCanonicalBookAndOrdinal() {
+        BookRegistry registry = BookRegistry.getInstance();
+        Book copy = newBook(isbn(1));
+        // Looking up the ordinal of an unknown ISBN does not register it.
+        assertEquals(-1, copy.getOrdinal());
+        assertEquals(-1, registry.ordinalOf(isbn(1)));
+        assertNull(registry.getBook(isbn(1)));
+        assertEquals(0, registry.size());
+
+        assertSame(copy, registry.register(copy));
+        assertEquals(0, copy.getOrdinal());
+        Book other = newBook(isbn(1));
+        assertEquals(0, other.getOrdinal());
+        assertSame(copy, registry.register(other));
+        assertEquals(-1, newBook(isbn(2)).getOrdinal());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testResetRestartsOrdinals() {
+        BookRegistry registry = BookRegistry.getInstance();
+        Book first = registry.register(newBook(isbn(1)));
+        Book copy = newBook(isbn(2));
+        registry.register(newBook(isbn(2)));
+        assertEquals(1, copy.getOrdinal());
+
+        registry.reset();
+        assertEquals(0, registry.size());
+        assertNull(registry.getBook(isbn(1)));
+        assertNull(registry.getBookByOrdinal(0));
+        // Neither the old canonical book nor a copy keeps its stale ordinal.
+        assertEquals(-1, copy.getOrdinal());
+        assertEquals(-1, first.getOrdinal());
+        registry.register(copy);
+        assertEquals(0, copy.getOrdinal());
+        assertSame(copy, registry.getBookByOrdinal(0));
+    }
+
+    @Test
+    public void testConcurrentRegistrationHandsOutUniqueOrdinals() throws Exception {
+        BookRegistry registry = BookRegistry.getInstance();
+        int threads = 4;
+        Set<Book> canonical = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // Every thread registers the same ISBNs, so all but one registration per ISBN lose the race.
+                for (int i = 0; i < 5_000; i++) {
+                    canonical.add(registry.register(newBook(isbn(i))));
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(5_000, canonical.size());
+        assertEquals(5_000, registry.size());
+        Set<Integer> ordinals = new HashSet<>();
+        for (Book book : canonical) {
+            assertTrue(ordinals.add(book.getOrdinal()));
+            assertSame(book, registry.getBookByOrdinal(book.getOrdinal()));
+        }
+        assertEquals(0, (int) ordinals.stream().min(Integer::compare).orElseThrow());
+        assertEquals(4_999, (int) ordinals.stream().max(Integer::compare).orElseThrow());
+    }
+}
@@ -0,0 +1,56 @@
+package org.airtribe.project.LibraryManagementSystem.Book;
+
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.Patron.PreferenceProfile;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class StringDictionaryTest {
+
+    @Test
+    public void testBooksShareOneCodeAndStringPerDistinctValue() {
+        Book first = bookBuilder(isbn(1)).setAuthor(new String("Dictionary Author")).setGenre(new String("Dictionary Genre")).build();
+        Book second = bookBuilder(isbn(2)).setAuthor(new String("Dictionary Author")).setGenre(new String("Other Dictionary Genre")).build();
+
+        assertEquals(first.getAuthorCode(), second.getAuthorCode());
+        assertSame(first.getAuthor(), second.getAuthor());
+        assertNotEquals(first.getGenreCode(), second.getGenreCode());
+        assertEquals(StringDictionary.getAuthors().getCode("Dictionary Author"), first.getAuthorCode());
+        assertEquals(StringDictionary.NO_CODE, StringDictionary.getAuthors().getCode("Never Interned Author"));
+
+        second.updateGenre("Dictionary Genre");
+        assertEquals(first.getGenreCode(), second.getGenreCode());
+        assertEquals("Dictionary Genre", second.getGenre());
+
+        Book anonymous = bookBuilder(isbn(3)).setAuthor("Dictionary Author").setGenre(null).build();
+        assertEquals(StringDictionary.NO_CODE, anonymous.getGenreCode());
+        assertNull(anonymous.getGenre());
+    }
+
+    @Test
+    public void testPreferenceProfileTracksCodes() {
+        Patron patron = new Patron(95, "Profile Patron", "Address", "9999999999");
+        BookRegistry registry = BookRegistry.getInstance();
+        Book book = registry.register(bookBuilder(isbn(4)).setAuthor("Profile Author").setGenre("Profile Genre").build());
+        Book other = registry.register(bookBuilder(isbn(5)).setAuthor("Other Profile Author").setGenre("Profile Genre").build());
+
+        patron.returnBook(book);
+        patron.returnBook(other);
+        PreferenceProfile profile = patron.getPreferenceProfile();
+
+        assertTrue(profile.hasAuthorCode(book.getAuthorCode()));
+        assertTrue(profile.hasAuthor("Profile Author"));
+        assertFalse(profile.hasAuthor("Unknown Profile Author"));
+        assertEquals(2, profile.getGenreCount("Profile Genre"));
+        assertEquals(Set.of("Profile Author", "Other Profile Author"), profile.getAuthors());
+        assertEquals(List.of("Other Profile Author", "Profile Author"), profile.getTopAuthors(2));
+    }
+}
@@ -0,0 +1,71 @@
+package org.airtribe.project.LibraryManagementSystem.Book;
+
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class TitleAnalyzerTest {
+    private final TitleAnalyzer analyzer = TitleAnalyzer.getInstance();
+
+    private String[] tokens(int[] tokenIds) {
+        return Arrays.stream(tokenIds).mapToObj(analyzer::getToken).sorted().toArray(String[]::new);
+    }
+
+    @Test
+    public void testTitlesAreSplitOnWhitespaceAndLowercased() {
+        int[] tokenIds = analyzer.analyze("  Analyzer\tRIVERS\n of  Analyzer   Night ");
+
+        assertArrayEquals(new String[]{"analyzer", "night", "rivers"}, tokens(tokenIds));
+        // Ids are sorted and unique, whatever order and repetition the title has.
+        int[] sorted = tokenIds.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, tokenIds);
+        assertArrayEquals(tokenIds, analyzer.analyze("night analyzer RIVERS rivers"));
+
+        assertEquals(analyzer.getTokenId("RIVERS"), analyzer.getTokenId("rivers"));
+        assertEquals("rivers", analyzer.getToken(analyzer.getTokenId("Rivers")));
+        assertEquals(-1, analyzer.getTokenId("never-analyzed-keyword"));
+        assertEquals(0, analyzer.analyze(null).length);
+        assertEquals(0, analyzer.analyze(" \t ").length);
+    }
+
+    @Test
+    public void testStopWordsAreDroppedAndNeverInterned() {
+        for (String stopWord : List.of("the", "A", "an", "Of", "and", "in", "on", "for", "with", "WOULD")) {
+            assertTrue(analyzer.isIgnoredKeyword(stopWord), stopWord);
+        }
+        assertFalse(analyzer.isIgnoredKeyword("theory"));
+
+        int tokenCount = analyzer.getTokenCount();
+        assertEquals(0, analyzer.analyze("The Of And A").length);
+        assertEquals(tokenCount, analyzer.getTokenCount());
+        assertEquals(-1, analyzer.getTokenId("the"));
+        assertArrayEquals(new String[]{"stopword", "theory"}, tokens(analyzer.analyze("The Theory of a Stopword")));
+    }
+
+    @Test
+    public void testSharedTitleTokens() {
+        Book read = bookBuilder(isbn(1)).setTitle("The Garden of Shared Tokens").build();
+        Book half = bookBuilder(isbn(2)).setTitle("Shared Winter Lights Tokens").build();
+        Book none = bookBuilder(isbn(3)).setTitle("Unrelated Story").build();
+        Book stopWords = bookBuilder(isbn(4)).setTitle("Of The And").build();
+        BitSet keywords = new BitSet();
+        analyzer.addTitleTokens(read, keywords);
+
+        assertEquals(3, keywords.cardinality());
+        assertTrue(analyzer.sharesTitleToken(half, keywords));
+        assertFalse(analyzer.sharesTitleToken(none, keywords));
+        assertEquals(0.5, analyzer.getSharedTitleTokenRatio(half, keywords));
+        assertEquals(1.0, analyzer.getSharedTitleTokenRatio(read, keywords));
+        assertEquals(0, analyzer.getSharedTitleTokenRatio(none, keywords));
+        assertEquals(0, analyzer.getSharedTitleTokenRatio(stopWords, keywords));
+    }
+}
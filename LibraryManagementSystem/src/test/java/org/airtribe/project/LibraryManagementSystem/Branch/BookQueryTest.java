@@ -0,0 +1,186 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class BookQueryTest {
+
+    @Test
+    public void testPagesCoverEveryBookOnceAndFiltersApply() {
+        Branch branch = new Branch(71, "Query Branch", "Anywhere");
+        for (int i = 0; i < 2_500; i++) {
+            branch.addBook(bookBuilder(isbn(i)).setAuthor("Author " + (i % 10)).setGenre(i % 2 == 0 ? "Fiction" : "History").build(), i % 5 == 0 ? 0 : 1);
+        }
+
+        Set<Book> seen = new HashSet<>();
+        int pages = 0;
+        Page<Book> page = branch.queryBooks(new BookQuery(), 1_000);
+        while (true) {
+            pages++;
+            for (Book book : page.getItems()) {
+                assertTrue(seen.add(book));
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = page.next();
+        }
+        assertEquals(3, pages);
+        assertEquals(2_500, seen.size());
+
+        assertEquals(2_000, branch.queryBooks(new BookQuery().setAvailableOnly(true)).count());
+        assertEquals(1_250, branch.queryBooks(new BookQuery().setGenre("fiction")).count());
+        Set<Book> byAuthor = branch.queryBooks(new BookQuery().setAuthor("author 3").setGenre("History").setAvailableOnly(true))
+                .collect(Collectors.toSet());
+        assertEquals(250, byAuthor.size());
+        for (Book book : byAuthor) {
+            assertEquals("Author 3", book.getAuthor());
+            assertEquals("History", book.getGenre());
+        }
+        assertEquals(0, branch.queryBooks(new BookQuery().setAuthor("Author 5").setAvailableOnly(true)).count());
+        assertEquals(250, branch.queryBooks(new BookQuery().setAuthor("Author 5")).count());
+    }
+
+    @Test
+    public void testStreamingSurvivesConcurrentGrowthWithoutDuplicates() {
+        Branch branch = new Branch(72, "Query Branch", "Anywhere");
+        for (int i = 0; i < 100; i++) {
+            branch.addBook(newBook(isbn(i)), 1);
+        }
+        Set<Long> seen = new HashSet<>();
+        int added = 0;
+        for (Book book : (Iterable<Book>) branch.queryBooks(new BookQuery())::iterator) {
+            assertTrue(seen.add(book.getIsbn()));
+            if (added < 1_000) {
+                branch.addBook(newBook(isbn(100 + added)), 1);
+                added++;
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(seen.contains(isbn(i)));
+        }
+    }
+
+    @Test
+    public void testPagingWhileBooksAreRemovedConcurrentlyReturnsEachBookOnce() throws Exception {
+        Branch branch = new Branch(74, "Query Branch", "Anywhere");
+        Set<Long> stocked = new HashSet<>();
+        for (int i = 0; i < 5_000; i++) {
+            branch.addBook(newBook(isbn(i)), 1);
+            stocked.add(isbn(i));
+        }
+        for (int round = 0; round < 5; round++) {
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicBoolean isPaging = new AtomicBoolean(true);
+            int offset = round;
+            // Removing keys shifts later keys of the same probe run back into earlier slots of the stock map.
+            Thread remover = new Thread(() -> {
+                started.countDown();
+                for (int i = offset; i < 5_000 && isPaging.get(); i += 7) {
+                    branch.removeBook(newBook(isbn(i)));
+                    branch.addBook(newBook(isbn(i)), 1);
+                }
+            });
+            Page<Book> page = branch.queryBooks(new BookQuery(), 100);
+            remover.start();
+            started.await();
+            Set<Long> seen = new HashSet<>();
+            while (true) {
+                for (Book book : page.getItems()) {
+                    assertTrue(seen.add(book.getIsbn()), "returned twice: " + book.getIsbn());
+                }
+                Thread.yield();
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = page.next();
+            }
+            isPaging.set(false);
+            remover.join();
+            assertEquals(stocked, seen);
+        }
+    }
+
+    // An author query walks the same snapshot as any other query, so books of that author removed or restocked
+    // while it pages are neither dropped nor returned twice.
+    @Test
+    public void testAuthorPagingWhileTheAuthorsBooksAreRemovedReturnsEachBookOnce() throws Exception {
+        Branch branch = new Branch(75, "Query Branch", "Anywhere");
+        Set<Long> stocked = new HashSet<>();
+        for (int i = 0; i < 4_000; i++) {
+            branch.addBook(bookBuilder(isbn(i)).setAuthor(i % 2 == 0 ? "Paged Author" : "Other Author").build(), 1);
+            if (i % 2 == 0) {
+                stocked.add(isbn(i));
+            }
+        }
+        for (int round = 0; round < 5; round++) {
+            CountDownLatch removed = new CountDownLatch(1);
+            AtomicBoolean isPaging = new AtomicBoolean(true);
+            int offset = round * 2;
+            // Every third book of the author is removed before the second page is read, then restocked and
+            // removed again until paging ends.
+            Thread remover = new Thread(() -> {
+                for (int i = offset; i < 4_000; i += 6) {
+                    branch.removeBook(newBook(isbn(i)));
+                }
+                removed.countDown();
+                while (isPaging.get()) {
+                    for (int i = offset; i < 4_000 && isPaging.get(); i += 6) {
+                        Book book = bookBuilder(isbn(i)).setAuthor("Paged Author").build();
+                        branch.addBook(book, 1);
+                        branch.removeBook(book);
+                    }
+                }
+                for (int i = offset; i < 4_000; i += 6) {
+                    branch.addBook(bookBuilder(isbn(i)).setAuthor("Paged Author").build(), 1);
+                }
+            });
+            Page<Book> page = branch.queryBooks(new BookQuery().setAuthor("  PAGED author "), 50);
+            remover.start();
+            removed.await();
+            Set<Long> seen = new HashSet<>();
+            while (true) {
+                for (Book book : page.getItems()) {
+                    assertEquals("Paged Author", book.getAuthor());
+                    assertTrue(seen.add(book.getIsbn()), "returned twice: " + book.getIsbn());
+                }
+                Thread.yield();
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = page.next();
+            }
+            isPaging.set(false);
+            remover.join();
+            assertEquals(stocked, seen);
+        }
+    }
+
+    @Test
+    public void testBorrowedBooksArePaged() {
+        Branch branch = new Branch(73, "Query Branch", "Anywhere");
+        Book book = newBook(isbn(1));
+        branch.addBook(book, 600);
+        for (int i = 0; i < 600; i++) {
+            assertNotNull(branch.checkoutBook(book, new Patron(i, "Patron", "Address", "9999999999")));
+        }
+        Page<Token> page = branch.queryBorrowedBooks(500);
+        assertEquals(500, page.getItems().size());
+        assertTrue(page.hasNext());
+        assertEquals(100, page.next().getItems().size());
+        assertEquals(600, branch.queryBorrowedBooks().map(Token::getTokenId).distinct().count());
+    }
+}
@@ -0,0 +1,184 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class CatalogLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    private Path write(String name, String content) throws Exception {
+        Path path = directory.resolve(name);
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    @Test
+    public void testSmallChunksSplitAtLineBoundaries() throws Exception {
+        StringBuilder csv = new StringBuilder("Quantity,ISBN,Title,Author,PublicationYear,Genre\n");
+        for (int i = 1; i <= 1_000; i++) {
+            csv.append(i % 4).append(',').append(isbn(i)).append(",Title ").append(i).append(",Author ").append(i % 10)
+                    .append(',').append(1900 + i % 100).append(",Genre\n");
+        }
+        Path path = write("catalog.csv", csv.toString());
+
+        // 64-byte chunks hold one or two rows each, so nearly every row boundary is also a chunk boundary.
+        Branch branch = new Branch(1, "Loader Branch", "Anywhere");
+        CatalogLoadReport report = new CatalogLoader(2, 64, 7).load(path, branch);
+        assertEquals(1_000, report.getRecords());
+        assertEquals(1_000, report.getLoaded());
+        assertEquals(0, report.getDuplicates());
+        assertEquals(0, report.getRejected());
+
+        Inventory inventory = branch.getInventory();
+        for (int i = 1; i <= 1_000; i++) {
+            Book book = inventory.findBookByIsbn(isbn(i));
+            assertEquals("Title " + i, book.getTitle());
+            assertEquals("Author " + i % 10, book.getAuthor());
+            assertEquals(1900 + i % 100, book.getPublicationYear());
+            assertEquals(i % 4, inventory.getQuantity(book));
+        }
+    }
+
+    @Test
+    public void testRecordSpanningSeveralChunksIsReadWhole() throws Exception {
+        String longTitle = "Long ".repeat(200).trim();
+        Path path = write("catalog.csv", isbn(1) + ",Short,Author,2000,Genre,1\n"
+                + isbn(2) + "," + longTitle + ",Author,2001,Genre,2\n"
+                + isbn(3) + ",Last,Author,2002,Genre,3");
+
+        // No header and no trailing newline; the 32-byte buffer has to grow to hold the second row.
+        Branch branch = new Branch(1, "Loader Branch", "Anywhere");
+        CatalogLoadReport report = new CatalogLoader(1, 32, 2).load(path, branch);
+        assertEquals(3, report.getLoaded());
+        Inventory inventory = branch.getInventory();
+        assertEquals(longTitle, inventory.findBookByIsbn(isbn(2)).getTitle());
+        assertEquals(2, inventory.getQuantity(inventory.findBookByIsbn(isbn(2))));
+        assertEquals("Last", inventory.findBookByIsbn(isbn(3)).getTitle());
+    }
+
+    @Test
+    public void testQuotedAndEscapedFields() throws Exception {
+        Path csv = write("catalog.csv", "isbn,title,author,publicationYear,genre,quantity\n"
+                + isbn(1) + ",\"Hello, World\",\"Doe, \"\"JD\"\" John\",2001,Fiction,3\n"
+                + isbn(2) + ",\"\",Author,2001,Fiction,1\n");
+        Path json = write("catalog.jsonl", "{\"isbn\": " + isbn(3) + ", \"title\": \"Say \\\"Hi\\\"\\tnow \\u00e9\", "
+                + "\"author\": \"A\\\\B\", \"publicationYear\": 1999, \"genre\": null, \"quantity\": 2}\n"
+                + "  {\"isbn\":" + isbn(4) + ",\"title\":\"Braces {and} colons: ok\",\"author\":\"C\",\"publicationYear\":2000}  \n");
+
+        Branch branch = new Branch(1, "Loader Branch", "Anywhere");
+        CatalogLoader loader = new CatalogLoader(2, 1024, 16);
+        CatalogLoadReport csvReport = loader.load(csv, branch);
+        assertEquals(1, csvReport.getLoaded());
+        // An empty quoted title is no title at all.
+        assertEquals(1, csvReport.getRejected());
+        CatalogLoadReport jsonReport = loader.load(json, branch);
+        assertEquals(2, jsonReport.getLoaded());
+
+        Inventory inventory = branch.getInventory();
+        Book quoted = inventory.findBookByIsbn(isbn(1));
+        assertEquals("Hello, World", quoted.getTitle());
+        assertEquals("Doe, \"JD\" John", quoted.getAuthor());
+        assertEquals(3, inventory.getQuantity(quoted));
+        Book escaped = inventory.findBookByIsbn(isbn(3));
+        assertEquals("Say \"Hi\"\tnow \u00e9", escaped.getTitle());
+        assertEquals("A\\B", escaped.getAuthor());
+        assertNull(escaped.getGenre());
+        assertEquals(2, inventory.getQuantity(escaped));
+        Book braces = inventory.findBookByIsbn(isbn(4));
+        assertEquals("Braces {and} colons: ok", braces.getTitle());
+        assertEquals(1, inventory.getQuantity(braces));
+    }
+
+    @Test
+    public void testDuplicatesAndInvalidRowsAreCountedNotLoaded() throws Exception {
+        StringBuilder csv = new StringBuilder("isbn,title,author,publicationYear,genre,quantity\n");
+        for (int i = 1; i <= 200; i++) {
+            csv.append(isbn(i)).append(",First ").append(i).append(",Author,2000,Genre,5\n");
+        }
+        // The duplicates land in later chunks than the rows they repeat.
+        for (int i = 1; i <= 200; i += 2) {
+            csv.append(isbn(i)).append(",Second ").append(i).append(",Author,2000,Genre,9\n");
+        }
+        List<String> invalid = List.of(
+                "not-a-number,Title,Author,2000,Genre,1",
+                isbn(1_001) + ",,Author,2000,Genre,1",
+                isbn(1_002) + ",Title,,2000,Genre,1",
+                isbn(1_003) + ",Title,Author,,Genre,1",
+                isbn(1_004) + ",Title,Author,year,Genre,1",
+                isbn(1_005) + ",Title,Author,2000,Genre,-1",
+                isbn(1_006) + ",Title,Author,2000,Genre,many",
+                isbn(1_007) + ",\"Unterminated,Author,2000,Genre,1");
+        for (String row : invalid) {
+            csv.append(row).append('\n');
+        }
+        csv.append("\n\n");
+        Path path = write("catalog.csv", csv.toString());
+
+        Branch branch = new Branch(1, "Loader Branch", "Anywhere");
+        CatalogLoadReport report = new CatalogLoader(3, 512, 32).load(path, branch);
+        assertEquals(200 + 100 + invalid.size(), report.getRecords());
+        assertEquals(200, report.getLoaded());
+        assertEquals(100, report.getDuplicates());
+        assertEquals(invalid.size(), report.getRejected());
+
+        Inventory inventory = branch.getInventory();
+        for (int i = 1; i <= 200; i++) {
+            Book book = inventory.findBookByIsbn(isbn(i));
+            assertEquals("First " + i, book.getTitle());
+            assertEquals(5, inventory.getQuantity(book));
+        }
+        for (int i = 1_001; i <= 1_007; i++) {
+            assertNull(inventory.findBookByIsbn(isbn(i)));
+        }
+
+        Path malformed = write("catalog.jsonl", "{\"isbn\": " + isbn(2_001) + ", \"title\": \"T\"\n"
+                + "[1, 2]\n"
+                + "{\"isbn\": " + isbn(2_002) + " \"title\": \"T\", \"author\": \"A\", \"publicationYear\": 2000}\n"
+                + "{\"isbn\": " + isbn(2_003) + ", \"title\": \"T\", \"author\": \"A\", \"publicationYear\": 2000}\n");
+        CatalogLoadReport jsonReport = new CatalogLoader(1, 1024, 8).load(malformed, branch);
+        assertEquals(4, jsonReport.getRecords());
+        assertEquals(1, jsonReport.getLoaded());
+        assertEquals(3, jsonReport.getRejected());
+    }
+
+    @Test
+    public void testFirstRowOfADuplicatedIsbnWinsAcrossChunks() throws Exception {
+        // The first copy sits at the end of a long chunk, the second alone in a short one right after it, so the
+        // second copy is usually parsed first.
+        StringBuilder csv = new StringBuilder("isbn,title,author,publicationYear,genre,quantity\n");
+        for (int i = 2; i <= 400; i++) {
+            csv.append(isbn(i)).append(",Filler ").append(i).append(",Author,2000,Genre,1\n");
+        }
+        csv.append(isbn(1)).append(",Original,Author,2000,Genre,3\n");
+        int chunkSize = csv.length();
+        csv.append(isbn(1)).append(",Copy,Other Author,2001,Genre,7\n");
+        Path path = write("catalog.csv", csv.toString());
+
+        for (int run = 0; run < 20; run++) {
+            BookRegistry.getInstance().reset();
+            Branch branch = new Branch(run + 1, "Loader Branch", "Anywhere");
+            CatalogLoadReport report = new CatalogLoader(2, chunkSize, 64).load(path, branch);
+            assertEquals(400, report.getLoaded());
+            assertEquals(1, report.getDuplicates());
+            Book book = branch.getInventory().findBookByIsbn(isbn(1));
+            assertEquals("Original", book.getTitle());
+            assertEquals("Author", book.getAuthor());
+            assertEquals(3, branch.getInventory().getQuantity(book));
+        }
+    }
+}
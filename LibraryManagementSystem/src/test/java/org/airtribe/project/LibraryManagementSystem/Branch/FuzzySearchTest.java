@@ -0,0 +1,72 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class FuzzySearchTest {
+
+    @Test
+    public void testMisspelledTitleAndAuthorAreFoundClosestFirst() {
+        Branch branch = new Branch(81, "Fuzzy Branch", "Anywhere");
+        Book cleanCode = newBook(isbn(1), "Clean Code", "Robert Martin", "Programming");
+        Book cleanCoder = newBook(isbn(2), "Clean Coder", "Robert Martin", "Programming");
+        Book refactoring = newBook(isbn(3), "Refactoring", "Martin Fowler", "Programming");
+        branch.addBook(cleanCode, 1);
+        branch.addBook(cleanCoder, 1);
+        branch.addBook(refactoring, 1);
+
+        assertEquals(List.of(cleanCode, cleanCoder), branch.fuzzySearchBooks("Clean Cde", 2));
+        assertEquals(List.of(cleanCode), branch.fuzzySearchBooks("clean  cde", 1));
+        assertEquals(List.of(refactoring), branch.fuzzySearchBooks("Martin Fowlr", 2));
+        assertEquals(List.of(refactoring), branch.fuzzySearchBooks("Refactorign", 2));
+        assertTrue(branch.fuzzySearchBooks("Design Patterns", 2).isEmpty());
+
+        branch.removeBook(cleanCode);
+        assertEquals(List.of(cleanCoder), branch.fuzzySearchBooks("Clean Cde", 2));
+    }
+
+    @Test
+    public void testIndexAgreesWithLinearScan() {
+        Random random = new Random(17);
+        FuzzyIndex index = new FuzzyIndex();
+        Set<String> terms = new HashSet<>();
+        while (terms.size() < 2_000) {
+            StringBuilder term = new StringBuilder();
+            int length = 3 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                term.append((char) ('a' + random.nextInt(4)));
+            }
+            terms.add(term.toString());
+        }
+        terms.forEach(index::add);
+
+        List<String> sample = new ArrayList<>(terms);
+        for (int i = 0; i < 200; i++) {
+            String term = sample.get(random.nextInt(sample.size()));
+            String query = term.substring(0, term.length() / 2) + 'x' + term.substring(term.length() / 2 + 1);
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                int k = maxDistance;
+                Set<String> expected = terms.stream()
+                        .filter(candidate -> FuzzyIndex.distance(query, candidate, k) <= k)
+                        .collect(Collectors.toSet());
+                Set<String> found = index.search(query, k, Integer.MAX_VALUE).stream()
+                        .map(FuzzyIndex.Match::getTerm)
+                        .collect(Collectors.toSet());
+                assertEquals(expected, found, query);
+            }
+        }
+    }
+}
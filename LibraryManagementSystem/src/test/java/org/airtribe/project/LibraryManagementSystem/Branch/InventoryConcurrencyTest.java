@@ -0,0 +1,161 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class InventoryConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 2_000;
+
+    @Test
+    public void testCheckoutNeverIssuesMoreCopiesThanStocked() throws Exception {
+        Branch branch = new Branch(1, "Stress Branch", "Anywhere");
+        Book book = newBook(isbn(1));
+        int stock = 25;
+        branch.addBook(book, stock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Token>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS * 10; i++) {
+            Patron patron = new Patron(i, "Patron " + i, "Address", "9999999999");
+            results.add(executor.submit(() -> {
+                start.await();
+                return branch.checkoutBook(book, patron);
+            }));
+        }
+        start.countDown();
+
+        int issued = 0;
+        for (Future<Token> result : results) {
+            if (result.get() != null) {
+                issued++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(stock, issued);
+        assertEquals(0, branch.getInventory().getQuantity(book));
+    }
+
+    @Test
+    public void testQuantityNeverGoesNegativeUnderCheckoutAndReturn() throws Exception {
+        Branch branch = new Branch(2, "Stress Branch", "Anywhere");
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Book book = newBook(isbn(i));
+            books.add(book);
+            branch.addBook(book, 3);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger negativeObservations = new AtomicInteger();
+        Thread monitor = new Thread(() -> {
+            while (running.get()) {
+                for (Book book : books) {
+                    if (branch.getInventory().getQuantity(book) < 0) {
+                        negativeObservations.incrementAndGet();
+                    }
+                }
+            }
+        });
+        monitor.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Patron patron = new Patron(t, "Patron " + t, "Address", "9999999999");
+            workers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    Book book = books.get(random.nextInt(books.size()));
+                    Token token = branch.checkoutBook(book, patron);
+                    if (token != null) {
+                        branch.returnBook(token);
+                        branch.returnBook(token);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        running.set(false);
+        monitor.join();
+
+        assertEquals(0, negativeObservations.get());
+        for (Book book : books) {
+            assertEquals(3, branch.getInventory().getQuantity(book));
+        }
+    }
+
+    @Test
+    public void testReturnsOfOnePatronAreSerialized() throws Exception {
+        Branch branch = new Branch(3, "Stress Branch", "Anywhere");
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Book book = newBook(isbn(i));
+            branch.addBook(book, 1);
+            books.add(book);
+        }
+        // Each return sees the history as left by the returns before it, never one still half applied.
+        Set<Integer> historySizes = ConcurrentHashMap.newKeySet();
+        branch.addLoanObserver(new LoanObserver() {
+            @Override
+            public void onBookCheckedOut(Patron patron, Book book, Branch branch) {
+            }
+
+            @Override
+            public void onBookReturned(Patron patron, Book book, Branch branch, boolean isFirstRead) {
+                assertTrue(isFirstRead);
+                historySizes.add(patron.getBorrowHistory().size());
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(books.size());
+        for (int iteration = 0; iteration < 200; iteration++) {
+            Patron patron = new Patron(iteration, "Patron " + iteration, "Address", "9999999999");
+            List<Token> tokens = new ArrayList<>();
+            for (Book book : books) {
+                tokens.add(branch.checkoutBook(book, patron));
+            }
+            historySizes.clear();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> returns = new ArrayList<>();
+            for (Token token : tokens) {
+                returns.add(executor.submit(() -> {
+                    start.await();
+                    branch.returnBook(token);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : returns) {
+                result.get();
+            }
+            assertEquals(Set.of(1, 2, 3, 4, 5), historySizes);
+            assertEquals(0, patron.getBorrowedBooksCount());
+        }
+        executor.shutdown();
+    }
+}
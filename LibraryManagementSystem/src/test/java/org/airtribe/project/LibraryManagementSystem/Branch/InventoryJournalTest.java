@@ -0,0 +1,173 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class InventoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testBranchIsRebuiltFromSnapshotAndJournalTail() throws Exception {
+        Map<Integer, Patron> patrons = new HashMap<>();
+        for (int i = 1; i <= 3; i++) {
+            patrons.put(i, new Patron(i, "Patron " + i, "Address", "9999999999"));
+        }
+        Book first = newBook(isbn(1));
+        Book second = newBook(isbn(2));
+        Book third = newBook(isbn(3));
+
+        InventoryJournal journal = new InventoryJournal(directory, 4096, 5, 60_000);
+        Branch branch = Branch.recover(3, "Journal Branch", "Anywhere", journal, patrons::get);
+        branch.addBook(first, 2);
+        branch.addBook(second, 1);
+        branch.addBook(third, 5);
+        Token returned = branch.checkoutBook(first, patrons.get(1));
+        branch.checkoutBook(second, patrons.get(2));
+        journal.snapshot();
+
+        branch.returnBook(returned);
+        Token kept = branch.checkoutBook(first, patrons.get(3));
+        branch.checkoutBook(second, patrons.get(1));
+        branch.removeBook(third);
+        for (int i = 0; i < 200; i++) {
+            branch.updateQuantity(third, i);
+        }
+        branch.transferBook(third, new Branch(4, "Other Branch", "Anywhere"), 50);
+        journal.close();
+
+        Map<Integer, Patron> restartedPatrons = new HashMap<>();
+        for (int i = 1; i <= 3; i++) {
+            restartedPatrons.put(i, new Patron(i, "Patron " + i, "Address", "9999999999"));
+        }
+        InventoryJournal recovered = new InventoryJournal(directory, 4096, 5, 60_000);
+        Branch restarted = Branch.recover(3, "Journal Branch", "Anywhere", recovered, restartedPatrons::get);
+
+        Inventory inventory = restarted.getInventory();
+        assertEquals(1, inventory.getQuantity(first));
+        assertEquals(0, inventory.getQuantity(second));
+        assertEquals(149, inventory.getQuantity(third));
+        assertEquals(2, inventory.getBorrowedTokens().size());
+        assertTrue(inventory.getBorrowedTokens().contains(kept));
+        assertEquals(1, restartedPatrons.get(2).getBorrowedBooksCount());
+        assertEquals(0, restartedPatrons.get(1).getBorrowedBooksCount());
+        assertEquals(1, restartedPatrons.get(3).getBorrowedBooksCount());
+        assertEquals(recovered.getLastSequence(), journal.getLastSequence());
+
+        Token token = inventory.getBorrowedTokens().iterator().next();
+        restarted.returnBook(token);
+        assertEquals(1, inventory.getBorrowedTokens().size());
+        recovered.close();
+    }
+
+    @Test
+    public void testBooksAreRebuiltFromDiskWhenTheRegistryIsEmpty() throws Exception {
+        Map<Integer, Patron> patrons = Map.of(1, new Patron(1, "Patron 1", "Address", "9999999999"));
+        InventoryJournal journal = new InventoryJournal(directory, 4096, 5, 60_000);
+        Branch branch = Branch.recover(5, "Journal Branch", "Anywhere", journal, patrons::get);
+        branch.addBook(newBook(isbn(1), "Snapshotted Title", "Snapshotted Author", "Snapshotted Genre"), 2);
+        Token loan = branch.checkoutBook(newBook(isbn(1)), patrons.get(1));
+        journal.snapshot();
+        branch.addBook(newBook(isbn(2), "Journaled Title", "Journaled Author", "Journaled Genre"), 3);
+        journal.close();
+
+        BookRegistry.getInstance().reset();
+        Map<Integer, Patron> restartedPatrons = Map.of(1, new Patron(1, "Patron 1", "Address", "9999999999"));
+        InventoryJournal recovered = new InventoryJournal(directory, 4096, 5, 60_000);
+        Inventory inventory = Branch.recover(5, "Journal Branch", "Anywhere", recovered, restartedPatrons::get).getInventory();
+
+        Book snapshotted = inventory.findBookByIsbn(isbn(1));
+        assertEquals("Snapshotted Title", snapshotted.getTitle());
+        assertEquals("Snapshotted Author", snapshotted.getAuthor());
+        assertEquals(1, inventory.getQuantity(snapshotted));
+        Book journaled = inventory.findBookByIsbn(isbn(2));
+        assertEquals("Journaled Genre", journaled.getGenre());
+        assertEquals(3, inventory.getQuantity(journaled));
+        assertSame(journaled, BookRegistry.getInstance().getBook(isbn(2)));
+        assertEquals(List.of(loan.getTokenId()), inventory.getBorrowedTokens().stream().map(Token::getTokenId).collect(Collectors.toList()));
+        assertEquals(1, restartedPatrons.get(1).getBorrowedBooksCount());
+        recovered.close();
+    }
+
+    @Test
+    public void testTornTailRecordIsDiscarded() throws Exception {
+        InventoryJournal journal = new InventoryJournal(directory, 4096, 5, 60_000);
+        Branch branch = Branch.recover(6, "Journal Branch", "Anywhere", journal, patronId -> null);
+        for (int i = 1; i <= 3; i++) {
+            branch.addBook(newBook(isbn(i)), i);
+        }
+        journal.close();
+
+        // Corrupt one byte of the last record's body, as if the process died while it was being written.
+        Path segment;
+        try (var segments = Files.list(directory)) {
+            segment = segments.filter(path -> path.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int lastRecord = 0;
+            int length;
+            while ((length = buffer.getInt(buffer.position())) > 0) {
+                lastRecord = buffer.position();
+                buffer.position(buffer.position() + 8 + length);
+            }
+            int corrupted = lastRecord + 8 + 20;
+            buffer.put(corrupted, (byte) ~buffer.get(corrupted));
+        }
+
+        InventoryJournal recovered = new InventoryJournal(directory, 4096, 5, 60_000);
+        Branch restarted = Branch.recover(6, "Journal Branch", "Anywhere", recovered, patronId -> null);
+        Inventory inventory = restarted.getInventory();
+        assertEquals(1, inventory.getQuantity(newBook(isbn(1))));
+        assertEquals(2, inventory.getQuantity(newBook(isbn(2))));
+        assertFalse(inventory.containsBook(newBook(isbn(3))));
+        assertEquals(2, recovered.getLastSequence());
+
+        // The discarded sequence number is reused by the next append, which must survive another restart.
+        restarted.addBook(newBook(isbn(4)), 4);
+        recovered.close();
+        InventoryJournal again = new InventoryJournal(directory, 4096, 5, 60_000);
+        inventory = Branch.recover(6, "Journal Branch", "Anywhere", again, patronId -> null).getInventory();
+        assertEquals(4, inventory.getQuantity(newBook(isbn(4))));
+        assertFalse(inventory.containsBook(newBook(isbn(3))));
+        assertEquals(3, again.getLastSequence());
+        again.close();
+    }
+
+    @Test
+    public void testClosedJournalIsDetachedFromTheInventory() throws Exception {
+        Patron patron = new Patron(1, "Patron 1", "Address", "9999999999");
+        InventoryJournal journal = new InventoryJournal(directory, 4096, 5, 60_000);
+        Branch branch = Branch.recover(7, "Journal Branch", "Anywhere", journal, patronId -> patron);
+        Book book = newBook(isbn(1));
+        branch.addBook(book, 2);
+        long sequence = journal.getLastSequence();
+        journal.close();
+
+        Token token = branch.checkoutBook(book, patron);
+        assertNotNull(token);
+        assertEquals(1, branch.getInventory().getQuantity(book));
+        assertTrue(branch.getInventory().hasToken(token));
+        assertEquals(sequence, journal.getLastSequence());
+    }
+}
@@ -0,0 +1,92 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class InventorySnapshotTest {
+
+    @Test
+    public void testSnapshotsAgreeWithLiveStockAndStayImmutable() {
+        Branch branch = new Branch(91, "Snapshot Branch", "Anywhere");
+        Inventory inventory = branch.getInventory();
+        Random random = new Random(18);
+        Map<Book, Integer> expected = new HashMap<>();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            books.add(newBook(isbn(random.nextInt(1_000_000))));
+        }
+
+        InventorySnapshot initial = inventory.getSnapshot();
+        for (int i = 0; i < 20_000; i++) {
+            Book book = books.get(random.nextInt(books.size()));
+            if (random.nextInt(5) == 0) {
+                branch.removeBook(book);
+                expected.remove(book);
+            } else {
+                int quantity = random.nextInt(3);
+                branch.updateQuantity(book, quantity);
+                expected.put(book, quantity);
+            }
+        }
+
+        InventorySnapshot snapshot = inventory.getSnapshot();
+        assertTrue(snapshot.getVersion() > initial.getVersion());
+        assertEquals(0, initial.size());
+        assertEquals(expected.size(), snapshot.size());
+        Set<Book> available = new HashSet<>();
+        snapshot.forEach((book, quantity) -> {
+            assertEquals(expected.get(book), quantity);
+            if (quantity > 0) {
+                available.add(book);
+            }
+        });
+        assertEquals(available, snapshot.getAvailableBooks());
+        assertEquals(available, new HashSet<>(inventory.getAvailableBooks()));
+        assertEquals(available.size(), snapshot.getAvailableBooks().size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getAvailableBooks().add(books.get(0)));
+
+        Book book = available.iterator().next();
+        branch.removeBook(book);
+        assertTrue(snapshot.isAvailable(book));
+        assertFalse(inventory.getSnapshot().containsBook(book));
+    }
+
+    @Test
+    public void testBatchesArePublishedAtomically() throws Exception {
+        Branch branch = new Branch(92, "Snapshot Branch", "Anywhere");
+        Inventory inventory = branch.getInventory();
+        List<Book> pair = List.of(newBook(isbn(1)), newBook(isbn(2)));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            long version = -1;
+            while (running.get()) {
+                InventorySnapshot snapshot = inventory.getSnapshot();
+                if (snapshot.getQuantity(pair.get(0)) != snapshot.getQuantity(pair.get(1)) || snapshot.getVersion() < version) {
+                    torn.incrementAndGet();
+                }
+                version = snapshot.getVersion();
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20_000; i++) {
+            inventory.addCopies(pair, new int[]{1, 1});
+        }
+        running.set(false);
+        reader.join();
+
+        assertEquals(0, torn.get());
+        assertEquals(20_000, inventory.getSnapshot().getQuantity(pair.get(1)));
+    }
+}
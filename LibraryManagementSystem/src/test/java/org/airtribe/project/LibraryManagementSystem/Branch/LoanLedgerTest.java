@@ -0,0 +1,63 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class LoanLedgerTest {
+
+    @Test
+    public void testLoansDueBeforeIsARangeQueryOverOpenLoans() {
+        long[] clock = {10_000L};
+        Branch branch = new Branch(81, "Ledger Branch", "Anywhere", NotificationDispatcher.getDefault(), () -> clock[0]);
+        List<Token> tokens = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Book book = newBook(isbn(i));
+            branch.addBook(book, 1);
+            clock[0] = 10_000L + i * 10L;
+            tokens.add(branch.checkoutBook(book, new Patron(700 + i, "Patron", "Address", "9999999999")));
+        }
+        for (int i = 0; i < 500; i += 2) {
+            branch.returnBook(tokens.get(i));
+        }
+        Inventory inventory = branch.getInventory();
+        assertFalse(inventory.returnBook(tokens.get(0)));
+        assertEquals(250, inventory.getLoanCount());
+
+        long period = LoanLedger.DEFAULT_LOAN_PERIOD_MILLIS;
+        Set<Token> due = new HashSet<>(inventory.findLoansDueBefore(period + 11_000L));
+        assertEquals(50, due.size());
+        for (int i = 1; i < 100; i += 2) {
+            assertTrue(due.contains(tokens.get(i)));
+        }
+        assertTrue(inventory.findLoansDueBefore(period + 10_000L).isEmpty());
+        assertEquals(250, inventory.findLoansDueBefore(Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testLoanIdsAreMonotonicAndRestoredIdsAreNotReissued() {
+        Branch branch = new Branch(82, "Ledger Branch", "Anywhere");
+        Book book = newBook(isbn(1));
+        branch.addBook(book, 3);
+        Token first = branch.checkoutBook(book, new Patron(8, "Patron", "Address", "9999999999"));
+        Token second = branch.checkoutBook(book, new Patron(9, "Patron", "Address", "9999999999"));
+        assertTrue(second.getTokenId() > first.getTokenId());
+
+        Token restored = new Token(second.getTokenId() + 1_000, new Patron(10, "Patron", "Address", "9999999999"), book, 0, 5);
+        Inventory inventory = branch.getInventory();
+        inventory.restoreLoan(restored);
+        assertTrue(inventory.hasToken(restored));
+        assertTrue(branch.checkoutBook(book, new Patron(11, "Patron", "Address", "9999999999")).getTokenId() > restored.getTokenId());
+    }
+}
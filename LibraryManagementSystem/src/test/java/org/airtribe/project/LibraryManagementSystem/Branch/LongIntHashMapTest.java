@@ -0,0 +1,173 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void testBackwardShiftDeletionKeepsProbeRunsReachable() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 2_000; trial++) {
+            // 11 keys stay below the resize threshold of the default 16 slots, so probe runs collide and wrap.
+            LongIntHashMap map = new LongIntHashMap();
+            Map<Long, Integer> expected = new HashMap<>();
+            while (expected.size() < 11) {
+                long key = 1 + random.nextInt(1_000_000);
+                map.put(key, (int) key);
+                expected.put(key, (int) key);
+            }
+            List<Long> keys = new ArrayList<>(expected.keySet());
+            Collections.shuffle(keys, random);
+            for (long key : keys.subList(0, 1 + random.nextInt(keys.size()))) {
+                assertTrue(map.remove(key));
+                assertFalse(map.remove(key));
+                expected.remove(key);
+                for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+                    assertEquals(entry.getValue(), map.get(entry.getKey(), -1));
+                }
+                assertFalse(map.containsKey(key));
+                assertEquals(expected.size(), map.size());
+            }
+        }
+    }
+
+    @Test
+    public void testZeroKeyIsStoredOutsideTheTable() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertFalse(map.containsKey(0));
+        assertEquals(-1, map.get(0, -1));
+        assertFalse(map.remove(0));
+
+        map.put(0, 7);
+        map.put(16, 8);
+        assertTrue(map.containsKey(0));
+        assertEquals(7, map.get(0, -1));
+        assertEquals(2, map.size());
+        assertFalse(map.putIfAbsent(0, 9));
+        map.put(0, 10);
+
+        Map<Long, Integer> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertEquals(Map.of(0L, 10, 16L, 8), entries);
+
+        assertTrue(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(1, map.size());
+        assertEquals(8, map.get(16, -1));
+    }
+
+    @Test
+    public void testResizeKeepsEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (int i = 1; i <= 100_000; i++) {
+            map.put(i * 31L, i);
+        }
+        assertEquals(100_000, map.size());
+        for (int i = 1; i <= 100_000; i++) {
+            assertEquals(i, map.get(i * 31L, -1));
+        }
+        assertFalse(map.containsKey(32));
+    }
+
+    // Readers of keys that are never written must always see their value, even when the optimistic read
+    // raced with a resize or a backward shift and had to be retried under the read lock.
+    @Test
+    public void testOptimisticReadsRetryAcrossConcurrentWrites() throws Exception {
+        LongIntHashMap map = new LongIntHashMap();
+        for (int i = 1; i <= 1_000; i++) {
+            map.put(i, i);
+        }
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(2);
+        Thread[] readers = new Thread[2];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                started.countDown();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (isWriting.get() && failure.get() == null) {
+                    int key = 1 + random.nextInt(1_000);
+                    if (map.get(key, -1) != key || !map.containsKey(key)) {
+                        failure.set("lost stable key " + key);
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        started.await();
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 20_000; i++) {
+                map.put(1_000_000L + round * 20_000L + i, i);
+            }
+            for (int i = 0; i < 20_000; i++) {
+                map.remove(1_000_000L + round * 20_000L + i);
+            }
+            Thread.yield();
+        }
+        isWriting.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertEquals(1_000, map.size());
+    }
+
+    @Test
+    public void testRandomConcurrentOperationsMatchConcurrentHashMap() throws Exception {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new ConcurrentHashMap<>();
+        int threads = 4;
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(thread);
+                for (int i = 0; i < 200_000 && failure.get() == null; i++) {
+                    // Keys are striped by thread, so each thread's view of its own keys is exact.
+                    long key = (long) random.nextInt(2_000) * threads + thread;
+                    int value = random.nextInt();
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            map.put(key, value);
+                            expected.put(key, value);
+                            break;
+                        case 1:
+                            if (map.remove(key) != (expected.remove(key) != null)) {
+                                failure.set("remove disagreed for " + key);
+                            }
+                            break;
+                        case 2:
+                            if (map.putIfAbsent(key, value) != (expected.putIfAbsent(key, value) == null)) {
+                                failure.set("putIfAbsent disagreed for " + key);
+                            }
+                            break;
+                        default:
+                            if (map.get(key, -1) != expected.getOrDefault(key, -1) || map.containsKey(key) != expected.containsKey(key)) {
+                                failure.set("get disagreed for " + key);
+                            }
+                            break;
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get());
+        Map<Long, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), map.size());
+    }
+}
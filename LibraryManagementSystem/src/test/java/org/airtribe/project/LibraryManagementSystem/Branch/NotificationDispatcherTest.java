@@ -0,0 +1,113 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class NotificationDispatcherTest {
+
+    private static class RecordingPatron extends Patron {
+        private final List<String> updates = new CopyOnWriteArrayList<>();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private RecordingPatron(int patronId, CountDownLatch release) {
+            super(patronId, "Patron " + patronId, "Address", "9999999999");
+            this.release = release;
+        }
+
+        @Override
+        public void update(Book book, boolean isAvailable, Branch branch) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            updates.add(book.getIsbn() + ":" + isAvailable);
+        }
+    }
+
+    @Test
+    public void testPendingEventsOfOneKeyAreCoalescedIntoTheLatest() throws Exception {
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        Branch branch = new Branch(1, "Dispatch Branch", "Anywhere", dispatcher);
+        Book blocking = newBook(isbn(1));
+        Book book = newBook(isbn(2));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingPatron patron = new RecordingPatron(1, release);
+        Reservations reservations = new Reservations();
+        reservations.addObserver(patron, blocking);
+        reservations.addObserver(patron, book);
+
+        // Hold the single delivery thread so the events for the second book queue up behind it.
+        dispatcher.dispatch(reservations, blocking, true, branch);
+        assertTrue(patron.started.await(10, TimeUnit.SECONDS));
+        dispatcher.dispatch(reservations, book, true, branch);
+        dispatcher.dispatch(reservations, book, false, branch);
+        dispatcher.dispatch(reservations, book, true, branch);
+        assertEquals(1, dispatcher.getQueueDepth());
+        release.countDown();
+        dispatcher.flush();
+
+        assertEquals(List.of(isbn(1) + ":true", isbn(2) + ":true"), patron.updates);
+        assertEquals(4, dispatcher.getEnqueuedCount());
+        assertEquals(2, dispatcher.getCoalescedCount());
+        assertEquals(2, dispatcher.getDeliveredCount());
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertTrue(dispatcher.getMaxDeliveryLagMillis() >= dispatcher.getAverageDeliveryLagMillis());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void testEventsOfOneKeyAreDeliveredInOrder() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        Branch branch = new Branch(1, "Dispatch Branch", "Anywhere", dispatcher);
+        Book book = newBook(isbn(1));
+        RecordingPatron patron = new RecordingPatron(1, new CountDownLatch(0));
+        Reservations reservations = new Reservations();
+        reservations.addObserver(patron, book);
+
+        for (int i = 0; i < 50; i++) {
+            dispatcher.dispatch(reservations, book, i % 2 == 0, branch);
+            dispatcher.flush();
+        }
+
+        assertEquals(50, patron.updates.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(isbn(1) + ":" + (i % 2 == 0), patron.updates.get(i));
+        }
+        assertEquals(0, dispatcher.getCoalescedCount());
+        assertEquals(50, dispatcher.getDeliveredCount());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void testEventsAfterShutdownAreDroppedWithoutFailingTheCaller() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        Branch branch = new Branch(1, "Dispatch Branch", "Anywhere", dispatcher);
+        Book book = newBook(isbn(1));
+        Patron patron = new Patron(1, "Patron 1", "Address", "9999999999");
+        branch.addBook(book, 1);
+        dispatcher.shutdown();
+
+        Token token = branch.checkoutBook(book, patron);
+        assertNotNull(token);
+        branch.returnBook(token);
+        assertEquals(1, branch.getInventory().getQuantity(book));
+        assertEquals(2, dispatcher.getDroppedCount());
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(0, dispatcher.getCoalescedCount());
+    }
+}
@@ -0,0 +1,99 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class OverdueSchedulerTest {
+    private static final long TICK = TimeUnit.MINUTES.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private static class RecordingPatron extends Patron {
+        private final List<Long> overdueAt = new ArrayList<>();
+        private final List<Long> fines = new ArrayList<>();
+        private final long[] clock;
+
+        private RecordingPatron(int patronId, long[] clock) {
+            super(patronId, "Patron " + patronId, "Address", "9999999999");
+            this.clock = clock;
+        }
+
+        @Override
+        public void onOverdue(Token token, Branch branch) {
+            overdueAt.add(clock[0]);
+        }
+
+        @Override
+        public void onFine(Token token, long fineAmount, Branch branch) {
+            fines.add(fineAmount);
+        }
+    }
+
+    @Test
+    public void testOverdueAndFineEventsFireAtDueDateUntilReturned() {
+        long[] clock = {TimeUnit.DAYS.toMillis(20_000)};
+        OverdueScheduler scheduler = new OverdueScheduler(TICK, DAY, 5, () -> clock[0]);
+        Branch branch = new Branch(5, "Overdue Branch", "Anywhere", NotificationDispatcher.getDefault(), () -> clock[0]);
+        branch.setOverdueScheduler(scheduler);
+        RecordingPatron early = new RecordingPatron(1, clock);
+        RecordingPatron late = new RecordingPatron(2, clock);
+        Book book = newBook(isbn(1));
+        branch.addBook(book, 2);
+        Token earlyToken = branch.checkoutBook(book, early);
+        branch.checkoutBook(book, late);
+        long due = earlyToken.getDueAt();
+        assertEquals(clock[0], earlyToken.getIssuedAt());
+        assertEquals(clock[0] + LoanLedger.DEFAULT_LOAN_PERIOD_MILLIS, due);
+
+        // Loans are stamped by the same clock, so stepping 8 ticks (a divisor of a day) lands on the due time
+        // and on each fine exactly.
+        for (long time = clock[0]; time <= due + 2 * DAY + TICK; time += 8 * TICK) {
+            clock[0] = time;
+            scheduler.advance(time);
+            if (time >= due + DAY / 2 && earlyToken != null) {
+                branch.returnBook(earlyToken);
+                earlyToken = null;
+            }
+        }
+
+        assertEquals(1, early.overdueAt.size());
+        assertEquals(due, early.overdueAt.get(0));
+        assertTrue(early.fines.isEmpty());
+        assertEquals(1, late.overdueAt.size());
+        assertEquals(List.of(5L, 10L), late.fines);
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    public void testCancelledLoansNeverFire() {
+        long[] clock = {0};
+        OverdueScheduler scheduler = new OverdueScheduler(TICK, DAY, 1, () -> clock[0]);
+        Branch branch = new Branch(6, "Overdue Branch", "Anywhere");
+        List<Token> tokens = new ArrayList<>();
+        List<RecordingPatron> patrons = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            RecordingPatron patron = new RecordingPatron(i, clock);
+            Token token = new Token(100_000 + i, patron, newBook(isbn(i)), 0, (i + 1) * 13 * TICK);
+            scheduler.schedule(token, branch);
+            tokens.add(token);
+            patrons.add(patron);
+        }
+        for (int i = 0; i < tokens.size(); i += 2) {
+            assertTrue(scheduler.cancel(tokens.get(i)));
+        }
+        scheduler.advance(1_001 * 13 * TICK);
+        for (int i = 0; i < patrons.size(); i++) {
+            assertEquals(i % 2 == 0 ? 0 : 1, patrons.get(i).overdueAt.size());
+        }
+    }
+}
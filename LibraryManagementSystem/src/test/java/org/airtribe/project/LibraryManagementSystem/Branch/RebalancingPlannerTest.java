@@ -0,0 +1,67 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class RebalancingPlannerTest {
+
+    private static void waitlist(Branch branch, Book book, int patrons, int firstPatronId) {
+        for (int i = 0; i < patrons; i++) {
+            assertNull(branch.checkoutBook(book, new Patron(firstPatronId + i, "Patron", "Address", "9999999999")));
+        }
+    }
+
+    @Test
+    public void testPlanFillsWaitlistsFromSurplusAndAppliesAtomically() {
+        Book book = newBook(isbn(1));
+        Branch surplus = new Branch(61, "Surplus Branch", "Anywhere");
+        Branch empty = new Branch(62, "Empty Branch", "Anywhere");
+        Branch understocked = new Branch(63, "Understocked Branch", "Anywhere");
+        surplus.addBook(book, 10);
+        empty.addBook(book, 0);
+        understocked.addBook(book, 0);
+        waitlist(empty, book, 4, 100);
+        waitlist(understocked, book, 3, 200);
+        understocked.addBook(book, 1);
+
+        RebalancingPlanner planner = new RebalancingPlanner(2, 1);
+        TransferPlan plan = planner.plan(List.of(surplus, empty, understocked));
+
+        assertEquals(6, plan.getUnmetBefore());
+        assertEquals(0, plan.getUnmetAfter());
+        assertEquals(2, plan.getTransfers().size());
+        assertTrue(planner.apply(plan));
+        assertEquals(4, surplus.getInventory().getQuantity(book));
+        assertEquals(4, empty.getInventory().getQuantity(book));
+        assertEquals(3, understocked.getInventory().getQuantity(book));
+        assertTrue(planner.plan(List.of(surplus, empty, understocked)).isEmpty());
+    }
+
+    @Test
+    public void testStalePlanIsNotApplied() {
+        Book book = newBook(isbn(2));
+        Branch source = new Branch(64, "Source Branch", "Anywhere");
+        Branch target = new Branch(65, "Target Branch", "Anywhere");
+        source.addBook(book, 3);
+        target.addBook(book, 0);
+        waitlist(target, book, 2, 300);
+
+        RebalancingPlanner planner = new RebalancingPlanner(1, 0);
+        TransferPlan plan = planner.plan(List.of(source, target));
+        assertEquals(2, plan.getTransfers().get(0).getQuantity());
+        source.updateQuantity(book, 1);
+
+        assertFalse(planner.apply(plan));
+        assertEquals(1, source.getInventory().getQuantity(book));
+        assertEquals(0, target.getInventory().getQuantity(book));
+    }
+}
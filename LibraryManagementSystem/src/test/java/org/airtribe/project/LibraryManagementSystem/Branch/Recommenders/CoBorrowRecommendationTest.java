@@ -0,0 +1,94 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.Token;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.*;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class CoBorrowRecommendationTest {
+
+    private static void read(Branch branch, Patron patron, Book... books) {
+        for (Book book : books) {
+            Token token = branch.checkoutBook(book, patron);
+            assertNotNull(token);
+            branch.returnBook(token);
+        }
+    }
+
+    private static List<Book> stock(Branch branch, int count) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Book book = newBook(isbn(i));
+            branch.addBook(book, 2);
+            books.add(book);
+        }
+        return books;
+    }
+
+    // Pairs with a: b 3, e 2, c 1, d 1.
+    private static List<Book> readTogether(Branch branch, List<Book> books) {
+        Book a = books.get(0), b = books.get(1), c = books.get(2), d = books.get(3), e = books.get(4);
+        read(branch, new Patron(1, "First", "Address", "9999999999"), a, b, c);
+        read(branch, new Patron(2, "Second", "Address", "9999999999"), a, b, e);
+        read(branch, new Patron(3, "Third", "Address", "9999999999"), e, a, d);
+        // Re-reading a book adds no new pairs.
+        read(branch, new Patron(4, "Fourth", "Address", "9999999999"), a, b, a);
+        return books;
+    }
+
+    @Test
+    public void testTopBooksAreRankedByCoBorrowCount() {
+        Branch branch = new Branch(260, "CoBorrow Branch", "Anywhere");
+        CoBorrowRecommendation topThree = new CoBorrowRecommendation(3);
+        CoBorrowRecommendation topOne = new CoBorrowRecommendation(1);
+        branch.addLoanObserver(topThree);
+        branch.addLoanObserver(topOne);
+        List<Book> books = readTogether(branch, stock(branch, 5));
+        Book a = books.get(0), b = books.get(1), c = books.get(2), d = books.get(3), e = books.get(4);
+
+        assertEquals(3, topThree.getCoBorrowCount(a, b));
+        assertEquals(3, topThree.getCoBorrowCount(b, a));
+        assertEquals(2, topThree.getCoBorrowCount(a, e));
+        assertEquals(0, topThree.getCoBorrowCount(c, d));
+
+        Patron patron = new Patron(5, "Reader", "Address", "9999999999");
+        read(branch, patron, a);
+        Set<Book> available = branch.getInventory().getAvailableBooks();
+        // The tie between c and d goes to the lower ISBN.
+        assertEquals(List.of(b, e, c), topThree.getRecommendations(patron, available));
+        assertEquals(List.of(b), topOne.getRecommendations(patron, available));
+        assertTrue(topThree.getRecommendations(new Patron(6, "Newcomer", "Address", "9999999999"), available).isEmpty());
+    }
+
+    @Test
+    public void testReadBorrowedAndUnavailableBooksAreExcluded() {
+        Branch branch = new Branch(261, "CoBorrow Branch", "Anywhere");
+        CoBorrowRecommendation recommendation = new CoBorrowRecommendation(5);
+        branch.addLoanObserver(recommendation);
+        List<Book> books = readTogether(branch, stock(branch, 5));
+        Book a = books.get(0), b = books.get(1), c = books.get(2), d = books.get(3), e = books.get(4);
+
+        Patron patron = new Patron(5, "Reader", "Address", "9999999999");
+        read(branch, patron, a, b);
+        // Scores from a and b: e 3, c 2, d 1, while a and b themselves are already read.
+        assertEquals(List.of(e, c, d), recommendation.getRecommendations(patron, branch.getInventory().getAvailableBooks()));
+
+        // A book the patron holds right now is not recommended either.
+        assertNotNull(branch.checkoutBook(e, patron));
+        assertEquals(List.of(c, d), recommendation.getRecommendations(patron, branch.getInventory().getAvailableBooks()));
+
+        // Nor is a book with no copy left on the shelf.
+        assertNotNull(branch.checkoutBook(c, new Patron(6, "Other", "Address", "9999999999")));
+        assertNotNull(branch.checkoutBook(c, new Patron(7, "Another", "Address", "9999999999")));
+        assertEquals(List.of(d), recommendation.getRecommendations(patron, branch.getInventory().getAvailableBooks()));
+    }
+}
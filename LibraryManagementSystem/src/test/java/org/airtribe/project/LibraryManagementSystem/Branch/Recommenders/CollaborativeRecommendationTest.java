@@ -0,0 +1,160 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.Token;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.*;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class CollaborativeRecommendationTest {
+
+    private static void read(Branch branch, Patron patron, Book book) {
+        Token token = branch.checkoutBook(book, patron);
+        assertNotNull(token);
+        branch.returnBook(token);
+    }
+
+    @Test
+    public void testRecommendsWhatSimilarPatronsRead() {
+        Branch branch = new Branch(230, "Collaborative Branch", "Anywhere");
+        CollaborativeRecommendation recommendation = new CollaborativeRecommendation();
+        branch.addLoanObserver(recommendation);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Book book = newBook(isbn(i));
+            branch.addBook(book, 3);
+            books.add(book);
+        }
+
+        // Two taste clusters: books 0-9 plus one of 10-14, and books 20-29.
+        List<Patron> firstCluster = new ArrayList<>();
+        for (int p = 0; p < 5; p++) {
+            Patron patron = new Patron(2300 + p, "First Cluster " + p, "Address", "9999999999");
+            for (int i = 0; i < 10; i++) {
+                read(branch, patron, books.get(i));
+            }
+            read(branch, patron, books.get(10 + p));
+            firstCluster.add(patron);
+        }
+        Patron stranger = new Patron(2310, "Stranger", "Address", "9999999999");
+        for (int i = 20; i < 30; i++) {
+            read(branch, stranger, books.get(i));
+        }
+        Patron patron = new Patron(2320, "Newcomer", "Address", "9999999999");
+        for (int i = 0; i < 9; i++) {
+            read(branch, patron, books.get(i));
+        }
+
+        Set<Patron> candidates = recommendation.getCandidates(patron);
+        assertTrue(candidates.containsAll(firstCluster));
+        assertFalse(candidates.contains(stranger));
+        assertFalse(candidates.contains(patron));
+
+        List<Book> recommended = recommendation.getRecommendations(patron, branch.getInventory().getAvailableBooks());
+        assertEquals(books.get(9), recommended.get(0));
+        assertEquals(5, recommended.size());
+        assertTrue(books.subList(10, 15).containsAll(recommended.subList(1, 5)));
+    }
+
+    @Test
+    public void testTiedScoresAreBrokenByIsbn() {
+        Branch branch = new Branch(231, "Collaborative Branch", "Anywhere");
+        CollaborativeRecommendation recommendation = new CollaborativeRecommendation();
+        branch.addLoanObserver(recommendation);
+        // Stocked in reverse so that registry ordinals run against ISBN order.
+        List<Book> books = new ArrayList<>();
+        for (int i = 19; i >= 0; i--) {
+            Book book = newBook(isbn(i));
+            branch.addBook(book, 3);
+            books.add(0, book);
+        }
+
+        // Every neighbour read the same ten unread books, so all of them score the same.
+        for (int p = 0; p < 3; p++) {
+            Patron neighbour = new Patron(2330 + p, "Neighbour " + p, "Address", "9999999999");
+            for (Book book : books) {
+                read(branch, neighbour, book);
+            }
+        }
+        Patron patron = new Patron(2340, "Newcomer", "Address", "9999999999");
+        for (int i = 0; i < 10; i++) {
+            read(branch, patron, books.get(i));
+        }
+
+        List<Book> recommended = recommendation.getRecommendations(patron, branch.getInventory().getAvailableBooks());
+        assertEquals(books.subList(10, 15), recommended);
+        assertEquals(recommended, recommendation.getRecommendations(patron, branch.getInventory().getAvailableBooks()));
+    }
+
+    @Test
+    public void testBucketsFindMostSimilarPatronsWithoutPairwiseScan() {
+        Random random = new Random(23);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            books.add(registeredBook(isbn(i)));
+        }
+        CollaborativeRecommendation recommendation = new CollaborativeRecommendation();
+        List<Patron> patrons = new ArrayList<>();
+        List<Set<Integer>> histories = new ArrayList<>();
+        List<BitSet> bitsets = new ArrayList<>();
+        for (int p = 0; p < 600; p++) {
+            Patron patron = new Patron(24000 + p, "Patron " + p, "Address", "9999999999");
+            Set<Integer> history = new HashSet<>();
+            // Every patron copies a third of a random earlier patron's history, so similar pairs exist.
+            if (p > 0 && random.nextBoolean()) {
+                Set<Integer> source = histories.get(random.nextInt(p));
+                for (int index : source) {
+                    if (random.nextInt(3) > 0) {
+                        history.add(index);
+                    }
+                }
+            }
+            while (history.size() < 20) {
+                history.add(random.nextInt(books.size()));
+            }
+            for (int index : history) {
+                patron.returnBook(books.get(index));
+            }
+            recommendation.index(patron);
+            patrons.add(patron);
+            histories.add(history);
+            BitSet bits = new BitSet(books.size());
+            history.forEach(bits::set);
+            bitsets.add(bits);
+        }
+
+        int similarPairs = 0;
+        int found = 0;
+        long candidates = 0;
+        for (int p = 0; p < patrons.size(); p++) {
+            Set<Patron> neighbours = recommendation.getCandidates(patrons.get(p));
+            candidates += neighbours.size();
+            for (int q = 0; q < patrons.size(); q++) {
+                if (p == q) {
+                    continue;
+                }
+                BitSet shared = (BitSet) bitsets.get(p).clone();
+                shared.and(bitsets.get(q));
+                int intersection = shared.cardinality();
+                double jaccard = intersection / (double) (histories.get(p).size() + histories.get(q).size() - intersection);
+                if (jaccard >= 0.4) {
+                    similarPairs++;
+                    if (neighbours.contains(patrons.get(q))) {
+                        found++;
+                    }
+                }
+            }
+        }
+        assertTrue(similarPairs > 100, "similar pairs: " + similarPairs);
+        assertTrue(found >= similarPairs * 0.9, found + " of " + similarPairs);
+        assertTrue(candidates / patrons.size() < 100, "candidates per patron: " + candidates / patrons.size());
+    }
+}
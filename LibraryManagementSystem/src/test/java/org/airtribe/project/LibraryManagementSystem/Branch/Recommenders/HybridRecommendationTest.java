@@ -0,0 +1,92 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.Token;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class HybridRecommendationTest {
+
+    private static void read(Branch branch, Patron patron, Book book) {
+        Token token = branch.checkoutBook(book, patron);
+        assertNotNull(token);
+        branch.returnBook(token);
+    }
+
+    @Test
+    public void testCombinesSignalsIntoOneRanking() {
+        Branch branch = new Branch(250, "Hybrid Branch", "Anywhere");
+        HybridRecommendation recommendation = new HybridRecommendation(1.0, 0.5, 0.75, 0.25, 3);
+        branch.addLoanObserver(recommendation);
+        Book read = newBook(isbn(1), "Hybrid Gardens of Winter", "Hybrid Author", "Hybrid Genre");
+        Book sameAuthorAndKeyword = newBook(isbn(2), "Hybrid Winter Tales", "Hybrid Author", "Other Hybrid Genre");
+        Book sameAuthor = newBook(isbn(3), "Something Else Entirely", "Hybrid Author", "Other Hybrid Genre");
+        Book sameGenre = newBook(isbn(4), "Unrelated Words", "Other Hybrid Author", "Hybrid Genre");
+        Book popular = newBook(isbn(5), "Popular Choice", "Popular Author", "Popular Genre");
+        Book nothing = newBook(isbn(6), "Nothing In Common", "Lonely Author", "Lonely Genre");
+        for (Book book : List.of(read, sameAuthorAndKeyword, sameAuthor, sameGenre, popular, nothing)) {
+            branch.addBook(book, 2);
+        }
+        Patron patron = new Patron(2500, "Hybrid Patron", "Address", "9999999999");
+        read(branch, patron, read);
+        Patron other = new Patron(2501, "Popular Patron", "Address", "9999999999");
+        read(branch, other, popular);
+
+        Set<Book> available = branch.getInventory().getAvailableBooks();
+        assertEquals(List.of(sameAuthorAndKeyword, sameAuthor, sameGenre), recommendation.getRecommendations(patron, available));
+        assertEquals(0, recommendation.score(patron, nothing));
+        assertEquals(0, recommendation.score(patron, read));
+
+        // Popularity alone still recommends something to a patron without history.
+        HybridRecommendation popularity = new HybridRecommendation(0, 0, 0, 1, 3);
+        branch.addLoanObserver(popularity);
+        read(branch, other, popular);
+        read(branch, patron, popular);
+        read(branch, patron, sameGenre);
+        Patron newcomer = new Patron(2502, "Newcomer", "Address", "9999999999");
+        assertEquals(List.of(popular, sameGenre), popularity.getRecommendations(newcomer, available));
+        assertEquals(2, popularity.getLoanCount(popular));
+        assertThrows(IllegalArgumentException.class, () -> new HybridRecommendation(-1, 0, 0, 0, 3));
+    }
+
+    @Test
+    public void testParallelPassMatchesSequentialRanking() {
+        Branch branch = new Branch(251, "Hybrid Branch", "Anywhere");
+        HybridRecommendation recommendation = new HybridRecommendation(1.0, 0.5, 0.75, 0.25, 25);
+        branch.addLoanObserver(recommendation);
+        String[] words = {"river", "night", "garden", "storm", "empire", "ocean", "winter", "machine", "silent", "journey"};
+        Random random = new Random(25);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + i;
+            Book book = newBook(isbn(i), title, "Hybrid Author " + random.nextInt(500), "Hybrid Genre " + random.nextInt(20));
+            branch.addBook(book, 2);
+            books.add(book);
+        }
+        Patron patron = new Patron(2510, "Parallel Patron", "Address", "9999999999");
+        for (int i = 0; i < 30; i++) {
+            read(branch, patron, books.get(random.nextInt(books.size())));
+        }
+        for (int i = 0; i < 500; i++) {
+            read(branch, new Patron(2520 + i, "Other", "Address", "9999999999"), books.get(random.nextInt(books.size())));
+        }
+
+        Set<Book> available = branch.getInventory().getAvailableBooks();
+        List<Book> expected = books.stream()
+                .filter(book -> recommendation.score(patron, book) > 0)
+                .sorted(Comparator.<Book>comparingDouble(book -> -recommendation.score(patron, book)).thenComparingLong(Book::getIsbn))
+                .limit(25)
+                .collect(Collectors.toList());
+        assertEquals(expected, recommendation.getRecommendations(patron, available));
+    }
+}
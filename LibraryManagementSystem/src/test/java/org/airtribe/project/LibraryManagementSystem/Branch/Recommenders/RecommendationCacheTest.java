@@ -0,0 +1,85 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.Token;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class RecommendationCacheTest {
+
+    @Test
+    public void testServesRepeatedLookupsUntilAVersionMoves() {
+        Branch branch = new Branch(240, "Cache Branch", "Anywhere");
+        Book read = bookBuilder(isbn(1)).setAuthor("Cached Author").build();
+        Book first = bookBuilder(isbn(2)).setAuthor("Cached Author").build();
+        Book second = bookBuilder(isbn(3)).setAuthor("Cached Author").build();
+        Book other = bookBuilder(isbn(4)).setAuthor("Other Cached Author").build();
+        branch.addBook(read, 1);
+        branch.addBook(first, 2);
+        branch.addBook(other, 1);
+        Patron patron = new Patron(2400, "Cache Patron", "Address", "9999999999");
+        branch.returnBook(branch.checkoutBook(read, patron));
+        AuthorRecommendation recommendation = new AuthorRecommendation();
+        RecommendationCache cache = branch.getRecommendationCache();
+
+        List<Book> recommended = branch.getRecommendations(patron, recommendation);
+        assertEquals(List.of(first), recommended);
+        assertSame(recommended, branch.getRecommendations(patron, recommendation));
+        assertEquals(1, cache.getHitCount());
+        assertThrows(UnsupportedOperationException.class, () -> recommended.add(other));
+
+        // A quantity change that keeps every book on the shelf does not invalidate.
+        branch.addBook(first, 5);
+        assertSame(recommended, branch.getRecommendations(patron, recommendation));
+
+        // A book becoming available does.
+        branch.addBook(second, 1);
+        assertEquals(2, branch.getRecommendations(patron, recommendation).size());
+
+        // So does the patron's own history: a borrowed book is no longer recommended.
+        Token token = branch.checkoutBook(first, patron);
+        assertEquals(List.of(second), branch.getRecommendations(patron, recommendation));
+        branch.returnBook(token);
+        assertEquals(List.of(second), branch.getRecommendations(patron, recommendation));
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testStrategyVersionAndEviction() {
+        Branch branch = new Branch(241, "Cache Branch", "Anywhere");
+        CoBorrowRecommendation coBorrow = new CoBorrowRecommendation();
+        branch.addLoanObserver(coBorrow);
+        Book first = bookBuilder(isbn(11)).setAuthor("Author A").build();
+        Book second = bookBuilder(isbn(12)).setAuthor("Author B").build();
+        branch.addBook(first, 2);
+        branch.addBook(second, 2);
+        Patron patron = new Patron(2410, "Cache Patron", "Address", "9999999999");
+        Patron other = new Patron(2411, "Other Cache Patron", "Address", "9999999999");
+        branch.returnBook(branch.checkoutBook(first, patron));
+
+        assertTrue(branch.getRecommendations(patron, coBorrow).isEmpty());
+        // Another patron's loans change the co-borrow counts, not this patron's history or the shelf.
+        branch.returnBook(branch.checkoutBook(first, other));
+        branch.returnBook(branch.checkoutBook(second, other));
+        assertEquals(List.of(second), branch.getRecommendations(patron, coBorrow));
+
+        RecommendationCache cache = new RecommendationCache(2);
+        GenreRecommendation genre = new GenreRecommendation();
+        cache.getRecommendations(patron, genre, branch.getInventory());
+        cache.getRecommendations(other, genre, branch.getInventory());
+        cache.getRecommendations(patron, genre, branch.getInventory());
+        cache.getRecommendations(new Patron(2412, "Third", "Address", "9999999999"), genre, branch.getInventory());
+        assertEquals(2, cache.size());
+        cache.getRecommendations(patron, genre, branch.getInventory());
+        assertEquals(2, cache.getHitCount());
+    }
+}
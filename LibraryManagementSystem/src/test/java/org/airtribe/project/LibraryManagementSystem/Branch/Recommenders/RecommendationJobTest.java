@@ -0,0 +1,136 @@
+package org.airtribe.project.LibraryManagementSystem.Branch.Recommenders;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class RecommendationJobTest {
+
+    // Recommends the three lowest available ISBNs that are not a multiple of the patron id.
+    private static final RecommendationSystem LOWEST_ISBNS = new RecommendationSystem() {
+        @Override
+        public void displayRecommendations(List<Book> recommendations) {
+        }
+
+        @Override
+        public List<Book> getRecommendations(Patron patron, Set<Book> availableBooks) {
+            return availableBooks.stream()
+                    .filter(book -> (book.getIsbn() - FIRST_ISBN) % patron.getPatronId() != 0)
+                    .sorted(Comparator.comparingLong(Book::getIsbn))
+                    .limit(3)
+                    .collect(Collectors.toList());
+        }
+    };
+
+    private static List<Branch> newBranches() {
+        List<Branch> branches = new ArrayList<>();
+        for (int branchId = 1; branchId <= 3; branchId++) {
+            Branch branch = new Branch(branchId, "Job Branch " + branchId, "Anywhere");
+            // Branch n stocks every n-th book, and has the first of them checked out.
+            for (int i = branchId; i <= 60; i += branchId) {
+                branch.addBook(newBook(isbn(i)), i == branchId ? 0 : 1);
+            }
+            branches.add(branch);
+        }
+        return branches;
+    }
+
+    private static List<Patron> newPatrons() {
+        List<Patron> patrons = new ArrayList<>();
+        for (int patronId = 1; patronId <= 40; patronId++) {
+            patrons.add(new Patron(patronId, "Patron " + patronId, "Address", "9999999999"));
+        }
+        return patrons;
+    }
+
+    @Test
+    public void testStoreHoldsEveryPatronAtEveryBranch() {
+        List<Branch> branches = newBranches();
+        List<Patron> patrons = newPatrons();
+
+        for (int parallelism : new int[]{1, 4}) {
+            RecommendationStore store = new RecommendationJob(LOWEST_ISBNS, parallelism).run(branches, patrons);
+            assertEquals(branches.size() * patrons.size(), store.size());
+            for (Branch branch : branches) {
+                for (Patron patron : patrons) {
+                    List<Book> expected = LOWEST_ISBNS.getRecommendations(patron, branch.getInventory().getAvailableBooks());
+                    assertTrue(store.contains(patron.getPatronId(), branch.getBranchId()));
+                    assertEquals(expected, store.getRecommendations(patron.getPatronId(), branch.getBranchId()));
+                    assertArrayEquals(expected.stream().mapToLong(Book::getIsbn).toArray(),
+                            store.getRecommendedIsbns(patron.getPatronId(), branch.getBranchId()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRunIntoExistingStoreReplacesEntries() {
+        List<Branch> branches = newBranches();
+        List<Patron> patrons = newPatrons();
+        RecommendationStore store = new RecommendationStore();
+        store.put(99, 1, List.of(newBook(isbn(100))));
+        store.put(1, 1, List.of(newBook(isbn(100))));
+
+        new RecommendationJob(LOWEST_ISBNS, 2).run(branches, patrons, store);
+        assertEquals(branches.size() * patrons.size() + 1, store.size());
+        assertArrayEquals(new long[]{isbn(100)}, store.getRecommendedIsbns(99, 1));
+        assertArrayEquals(new long[]{isbn(3), isbn(5), isbn(7)}, store.getRecommendedIsbns(2, 1));
+        // Patron 1 excludes every book, so the stale entry is replaced by an empty one.
+        assertTrue(store.contains(1, 1));
+        assertEquals(0, store.getRecommendedIsbns(1, 1).length);
+    }
+
+    @Test
+    public void testStrategyFailureFailsTheJob() {
+        RecommendationSystem failing = new RecommendationSystem() {
+            @Override
+            public void displayRecommendations(List<Book> recommendations) {
+            }
+
+            @Override
+            public List<Book> getRecommendations(Patron patron, Set<Book> availableBooks) {
+                throw new IllegalArgumentException("boom");
+            }
+        };
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> new RecommendationJob(failing, 2).run(newBranches(), newPatrons()));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertTrue(failure.getCause().getMessage().contains("boom"));
+    }
+
+    @Test
+    public void testStoreKeysAndCopies() {
+        RecommendationStore store = new RecommendationStore();
+        Book first = BookRegistry.getInstance().register(newBook(isbn(1)));
+        Book second = BookRegistry.getInstance().register(newBook(isbn(2)));
+        store.put(1, 2, List.of(first, second));
+        store.put(2, 1, List.of(second));
+
+        assertFalse(store.contains(1, 1));
+        assertEquals(0, store.getRecommendedIsbns(1, 1).length);
+        assertTrue(store.getRecommendations(1, 1).isEmpty());
+        assertEquals(List.of(second), store.getRecommendations(2, 1));
+
+        long[] isbns = store.getRecommendedIsbns(1, 2);
+        isbns[0] = 0;
+        assertArrayEquals(new long[]{isbn(1), isbn(2)}, store.getRecommendedIsbns(1, 2));
+        // Stored ISBNs resolve to the canonical books; unknown ones are skipped.
+        assertEquals(List.of(first, second), store.getRecommendations(1, 2));
+        store.put(3, 3, List.of(newBook(isbn(3)), first));
+        assertEquals(List.of(first), store.getRecommendations(3, 3));
+
+        store.clear();
+        assertEquals(0, store.size());
+    }
+}
@@ -0,0 +1,128 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class SearchIndexTest {
+
+    @Test
+    public void testAddedBooksAreFoundByTitleKeywordAuthorAndIsbn() {
+        Branch branch = new Branch(91, "Search Branch", "Anywhere");
+        Book cleanCode = newBook(isbn(1), "Clean Code", "Robert Martin", "Programming");
+        Book cleanArchitecture = newBook(isbn(2), "Clean Architecture", "Robert Martin", "Programming");
+        Book refactoring = newBook(isbn(3), "Refactoring", "Martin Fowler", "Programming");
+        branch.addBook(cleanCode, 1);
+        branch.addBook(cleanArchitecture, 2);
+        branch.addBook(refactoring, 3);
+        Inventory inventory = branch.getInventory();
+
+        assertEquals(Set.of(cleanCode), inventory.findBooksByTitle("  CLEAN   code "));
+        assertEquals(Set.of(cleanCode, cleanArchitecture), inventory.findBooksByTitleKeyword("Clean"));
+        assertEquals(Set.of(cleanCode, cleanArchitecture), inventory.findBooksByAuthor("robert martin"));
+        assertEquals(refactoring, inventory.findBookByIsbn(isbn(3)));
+        assertEquals(Set.of(refactoring), branch.findBooks(" " + isbn(3) + " "));
+        assertEquals(Set.of(cleanCode), branch.findBooks("Clean Code"));
+        assertTrue(inventory.findBooksByTitle("Clean").isEmpty());
+        assertTrue(branch.findBooks("Design Patterns").isEmpty());
+    }
+
+    @Test
+    public void testTitleKeywordsSkipStopWordsAndLookupsAreReadOnly() {
+        SearchIndex index = new SearchIndex();
+        Book garden = newBook(isbn(1), "The Garden of Keyword Lookups", "Index Author", "Fiction");
+        Book river = newBook(isbn(2), "A River in Keyword Country", "Index Author", "Fiction");
+        index.addBook(garden);
+        index.addBook(river);
+
+        for (String stopWord : List.of("the", "of", "A", " in ")) {
+            assertTrue(index.findByTitleKeyword(stopWord).isEmpty(), stopWord);
+        }
+        assertTrue(index.findByTitleKeyword("").isEmpty());
+        assertEquals(Set.of(garden), index.findByTitleKeyword(" GARDEN "));
+
+        Set<Book> keyword = index.findByTitleKeyword("keyword");
+        assertEquals(Set.of(garden, river), keyword);
+        assertThrows(UnsupportedOperationException.class, () -> keyword.remove(garden));
+        assertThrows(UnsupportedOperationException.class, () -> index.findByAuthor("Index Author").clear());
+        assertEquals(Set.of(garden, river), index.findByAuthor("index author"));
+    }
+
+    @Test
+    public void testRemovedBookLeavesTheIndex() {
+        Branch branch = new Branch(92, "Search Branch", "Anywhere");
+        Book cleanCode = newBook(isbn(1), "Clean Code", "Robert Martin", "Programming");
+        Book cleanArchitecture = newBook(isbn(2), "Clean Architecture", "Robert Martin", "Programming");
+        branch.addBook(cleanCode, 1);
+        branch.addBook(cleanArchitecture, 1);
+        Inventory inventory = branch.getInventory();
+
+        branch.removeBook(cleanCode);
+
+        assertTrue(inventory.findBooksByTitle("Clean Code").isEmpty());
+        assertTrue(inventory.findBooksByTitleKeyword("code").isEmpty());
+        assertNull(inventory.findBookByIsbn(isbn(1)));
+        assertTrue(branch.fuzzySearchBooks("Clean Cde", 1).isEmpty());
+        // Keys shared with a book still in stock survive.
+        assertEquals(Set.of(cleanArchitecture), inventory.findBooksByTitleKeyword("clean"));
+        assertEquals(Set.of(cleanArchitecture), inventory.findBooksByAuthor("Robert Martin"));
+
+        branch.removeBook(cleanArchitecture);
+        assertTrue(inventory.findBooksByAuthor("Robert Martin").isEmpty());
+        assertTrue(branch.fuzzySearchBooks("Robert Martn", 1).isEmpty());
+
+        branch.addBook(cleanCode, 1);
+        assertEquals(Set.of(cleanCode), inventory.findBooksByTitleKeyword("code"));
+    }
+
+    @Test
+    public void testQuantityUpdatesStockAndKeepTheBookIndexed() {
+        Branch branch = new Branch(93, "Search Branch", "Anywhere");
+        Book book = newBook(isbn(1), "Silent Spring", "Rachel Carson", "Science");
+        Inventory inventory = branch.getInventory();
+
+        // A quantity update is enough to stock a book the branch did not carry.
+        inventory.updateQuantity(book, 2);
+        assertEquals(Set.of(book), inventory.findBooksByTitle("Silent Spring"));
+
+        inventory.updateQuantity(book, 0);
+        branch.addBook(book, 3);
+        assertEquals(Set.of(book), inventory.findBooksByAuthor("Rachel Carson"));
+        assertEquals(List.of(book), branch.fuzzySearchBooks("Silent Sprng", 1));
+    }
+
+    // A changed title or author is a new record for the same ISBN: the index drops the old record's keys and
+    // indexes the new one.
+    @Test
+    public void testTitleAndAuthorUpdatesReplaceTheIndexedKeys() {
+        SearchIndex index = new SearchIndex();
+        Book original = newBook(isbn(1), "The Pragmatic Programer", "Andy Hunt", "Programming");
+        Book corrected = newBook(isbn(1), "The Pragmatic Programmer", "Andrew Hunt", "Programming");
+        Book other = newBook(isbn(2), "Programming Pearls", "Jon Bentley", "Programming");
+        index.addBook(original);
+        index.addBook(other);
+
+        index.removeBook(original);
+        index.addBook(corrected);
+
+        assertTrue(index.findByTitle("The Pragmatic Programer").isEmpty());
+        assertTrue(index.findByTitleKeyword("programer").isEmpty());
+        assertTrue(index.findByAuthor("Andy Hunt").isEmpty());
+        assertEquals(Set.of(corrected), index.findByTitle("the pragmatic programmer"));
+        assertEquals(Set.of(corrected), index.findByTitleKeyword("Pragmatic"));
+        assertEquals(Set.of(corrected), index.findByAuthor("Andrew Hunt"));
+        // Books are equal by ISBN, so check that the indexed instance is the new record.
+        assertSame(corrected, index.findByAuthor("Andrew Hunt").iterator().next());
+        assertTrue(index.fuzzyFindByAuthor("Andy Hunt", 0, 10).isEmpty());
+        assertEquals(List.of(corrected), index.fuzzyFindByAuthor("Andrw Hunt", 1, 10));
+        assertEquals(Set.of(other), index.findByTitleKeyword("programming"));
+    }
+}
@@ -0,0 +1,60 @@
+package org.airtribe.project.LibraryManagementSystem.Branch;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class StockFilterTest {
+
+    @Test
+    public void testNoFalseNegativesAcrossGrowthAndRemoval() {
+        Branch branch = new Branch(101, "Filter Branch", "Anywhere");
+        Inventory inventory = branch.getInventory();
+        List<Book> stocked = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Book book = newBook(isbn(i));
+            branch.addBook(book, 1);
+            stocked.add(book);
+        }
+        for (int i = 0; i < stocked.size(); i += 2) {
+            branch.removeBook(stocked.get(i));
+        }
+
+        for (int i = 1; i < stocked.size(); i += 2) {
+            assertTrue(inventory.mightContain(stocked.get(i)));
+        }
+        int falsePositives = 0;
+        int probes = 20_000;
+        for (int i = 0; i < probes; i++) {
+            if (inventory.mightContain(newBook(isbn(1_000_000 + i)))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < probes / 20, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testFanOutSkipsBranchesWithoutTheBook() {
+        Book book = newBook(isbn(1));
+        Branch home = new Branch(102, "Home Branch", "Anywhere");
+        List<Branch> branches = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Branch branch = new Branch(200 + i, "Fan Out Branch " + i, "Anywhere");
+            branch.addBook(newBook(isbn(2 + i)), 1);
+            branches.add(branch);
+        }
+        branches.get(7).addBook(book, 2);
+        branches.get(31).addBook(book, 0);
+
+        assertFalse(branches.get(3).getInventory().mightContain(book));
+        assertEquals(List.of(branches.get(7)), home.searchBookAvailabilityInOtherBranches(book, branches));
+    }
+}
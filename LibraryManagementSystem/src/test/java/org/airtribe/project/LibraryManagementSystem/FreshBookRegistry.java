@@ -0,0 +1,22 @@
+package org.airtribe.project.LibraryManagementSystem;
+
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+// Gives every test an empty BookRegistry, so tests can reuse ISBNs without seeing each other's books.
+// StringDictionary and TitleAnalyzer stay shared: they only intern strings, and the same string always
+// maps to the same code.
+public class FreshBookRegistry implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        BookRegistry.getInstance().reset();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        BookRegistry.getInstance().reset();
+    }
+}
@@ -0,0 +1,107 @@
+package org.airtribe.project.LibraryManagementSystem;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Branch.Branch;
+import org.airtribe.project.LibraryManagementSystem.Branch.Token;
+import org.airtribe.project.LibraryManagementSystem.Patron.Patron;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class LibraryCatalogTest {
+
+    @Test
+    public void testAvailabilityIsTrackedPerIsbnAcrossBranches() {
+        LibraryCatalog catalog = new LibraryCatalog();
+        Branch first = new Branch(1, "First Branch", "North");
+        Branch second = new Branch(2, "Second Branch", "South");
+        Branch third = new Branch(3, "Third Branch", "East");
+        catalog.registerBranch(first);
+        catalog.registerBranch(second);
+        catalog.registerBranch(third);
+        Book shared = newBook(isbn(1));
+        Book rare = newBook(isbn(2));
+
+        first.addBook(shared, 2);
+        second.addBook(shared, 3);
+        second.addBook(rare, 1);
+        first.addBook(shared, 1);
+
+        assertEquals(Map.of(1, 3, 2, 3), catalog.getAvailability(shared));
+        assertEquals(Map.of(2, 1), catalog.getAvailability(rare));
+        assertEquals(Set.of(first, second), new HashSet<>(catalog.findBranchesWithBook(shared)));
+        assertEquals(List.of(second), catalog.findBranchesWithBook(rare));
+        assertTrue(catalog.getAvailability(newBook(isbn(3))).isEmpty());
+        // The returned map is a copy.
+        catalog.getAvailability(shared).clear();
+        assertEquals(2, catalog.getAvailability(shared).size());
+    }
+
+    @Test
+    public void testLoansReturnsRemovalsAndTransfersUpdateTheCatalog() {
+        LibraryCatalog catalog = new LibraryCatalog();
+        Branch first = new Branch(1, "First Branch", "North");
+        Branch second = new Branch(2, "Second Branch", "South");
+        catalog.registerBranch(first);
+        catalog.registerBranch(second);
+        Book book = newBook(isbn(1));
+        Patron patron = new Patron(1, "Patron", "Address", "9999999999");
+        first.addBook(book, 1);
+        second.addBook(book, 2);
+
+        Token token = first.checkoutBook(book, patron);
+        assertEquals(Map.of(2, 2), catalog.getAvailability(book));
+        first.returnBook(token);
+        assertEquals(Map.of(1, 1, 2, 2), catalog.getAvailability(book));
+
+        second.transferBook(book, first, 2);
+        assertEquals(Map.of(1, 3), catalog.getAvailability(book));
+        assertEquals(List.of(first), catalog.findBranchesWithBook(book));
+
+        first.removeBook(book);
+        assertTrue(catalog.getAvailability(book).isEmpty());
+        assertTrue(catalog.findBranchesWithBook(book).isEmpty());
+    }
+
+    @Test
+    public void testBranchStockedBeforeRegistrationIsIndexed() {
+        LibraryCatalog catalog = new LibraryCatalog();
+        Branch branch = new Branch(1, "First Branch", "North");
+        Book inStock = newBook(isbn(1));
+        Book outOfStock = newBook(isbn(2));
+        branch.addBook(inStock, 4);
+        branch.addBook(outOfStock, 0);
+
+        catalog.registerBranch(branch);
+
+        assertEquals(Map.of(1, 4), catalog.getAvailability(inStock));
+        assertTrue(catalog.getAvailability(outOfStock).isEmpty());
+    }
+
+    @Test
+    public void testUnregisteredBranchIsDroppedAndNoLongerTracked() {
+        LibraryCatalog catalog = new LibraryCatalog();
+        Branch first = new Branch(1, "First Branch", "North");
+        Branch second = new Branch(2, "Second Branch", "South");
+        catalog.registerBranch(first);
+        catalog.registerBranch(second);
+        Book book = newBook(isbn(1));
+        first.addBook(book, 1);
+        second.addBook(book, 1);
+
+        catalog.unregisterBranch(first);
+        first.addBook(book, 5);
+
+        assertEquals(Map.of(2, 1), catalog.getAvailability(book));
+        assertNull(catalog.getBranch(1));
+        assertEquals(List.of(second), List.copyOf(catalog.getBranches()));
+    }
+}
@@ -0,0 +1,68 @@
+package org.airtribe.project.LibraryManagementSystem.Patron;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.*;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class CompactBitmapTest {
+
+    @Test
+    public void testMatchesTreeSetAcrossContainerConversions() {
+        CompactBitmap bitmap = new CompactBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(22);
+        for (int i = 0; i < 20_000; i++) {
+            // Dense values in the first container force the array to bitmap switch, the rest stay sparse.
+            int value = i % 2 == 0 ? random.nextInt(6_000) : random.nextInt(Integer.MAX_VALUE);
+            assertEquals(expected.add(value), bitmap.add(value));
+        }
+
+        assertEquals(expected.size(), bitmap.size());
+        for (int i = 0; i < 20_000; i++) {
+            int value = i % 2 == 0 ? random.nextInt(6_000) : random.nextInt(Integer.MAX_VALUE);
+            assertEquals(expected.contains(value), bitmap.contains(value));
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), bitmap.toArray());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+
+    @Test
+    public void testBorrowHistoryIsKeyedByIsbnOrdinal() {
+        Patron patron = new Patron(96, "Bitmap Patron", "Address", "9999999999");
+        Book book = registeredBook(isbn(1));
+        Book other = registeredBook(isbn(2));
+
+        patron.returnBook(book);
+        patron.returnBook(newBook(isbn(1)));
+
+        assertEquals(book.getOrdinal(), newBook(isbn(1)).getOrdinal());
+        assertNotEquals(book.getOrdinal(), other.getOrdinal());
+        assertFalse(patron.hasAlreadyReadTheBook(newBook(isbn(1))));
+        assertTrue(patron.hasAlreadyReadTheBook(other));
+        assertEquals(Set.of(book), patron.getBorrowHistory());
+        assertTrue(patron.getBorrowHistory().contains(newBook(isbn(1))));
+        assertEquals(Set.of(book.getTitle()), patron.getPreferredTitles());
+    }
+
+    @Test
+    public void testOrdinalsUnknownToTheRegistryAreSkipped() {
+        Patron patron = new Patron(97, "Bitmap Patron", "Address", "9999999999");
+        patron.returnBook(registeredBook(isbn(1)));
+        patron.returnBook(registeredBook(isbn(2)));
+
+        // A reset leaves the patron with ordinals no book has any more, as would a history from another process.
+        BookRegistry.getInstance().reset();
+
+        assertTrue(patron.getPreferredTitles().isEmpty());
+        assertFalse(patron.getBorrowHistory().iterator().hasNext());
+        assertEquals(2, patron.getBorrowHistoryOrdinals().size());
+    }
+}
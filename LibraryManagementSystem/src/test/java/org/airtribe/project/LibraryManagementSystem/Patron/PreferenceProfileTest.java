@@ -0,0 +1,115 @@
+package org.airtribe.project.LibraryManagementSystem.Patron;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.FreshBookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.airtribe.project.LibraryManagementSystem.TestBooks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(FreshBookRegistry.class)
+public class PreferenceProfileTest {
+
+    private static Book bookBy(int number, String author, String genre) {
+        return newBook(isbn(number), "Title " + number, author, genre);
+    }
+
+    @Test
+    public void testRecentBorrowOutranksOlderOnes() {
+        PreferenceProfile profile = new PreferenceProfile();
+        profile.record(bookBy(1, "Old Profile Author", "Old Profile Genre"));
+        profile.record(bookBy(2, "Old Profile Author", "Old Profile Genre"));
+        for (int i = 0; i < 10; i++) {
+            profile.record(bookBy(10 + i, "Filler Profile Author " + i, "Filler Profile Genre"));
+        }
+        profile.record(bookBy(3, "New Profile Author", "New Profile Genre"));
+
+        // Two reads eleven and twelve returns ago weigh 0.9^11 + 0.9^12, about 0.6, against 1 for the latest read.
+        assertEquals(1.0, profile.getAuthorWeight("New Profile Author"), 1e-12);
+        assertEquals(Math.pow(0.9, 11) + Math.pow(0.9, 12), profile.getAuthorWeight("Old Profile Author"), 1e-12);
+        assertEquals("New Profile Author", profile.getTopAuthors(1).get(0));
+        assertTrue(profile.getGenreWeight("New Profile Genre") > profile.getGenreWeight("Old Profile Genre"));
+        // Counts are not decayed.
+        assertEquals(2, profile.getAuthorCount("Old Profile Author"));
+
+        // Without decay the older author wins on frequency.
+        PreferenceProfile undecayed = new PreferenceProfile(1.0);
+        undecayed.record(bookBy(1, "Old Profile Author", "Old Profile Genre"));
+        undecayed.record(bookBy(2, "Old Profile Author", "Old Profile Genre"));
+        undecayed.record(bookBy(3, "New Profile Author", "New Profile Genre"));
+        assertEquals(List.of("Old Profile Author", "New Profile Author"), undecayed.getTopAuthors(2));
+        assertThrows(IllegalArgumentException.class, () -> new PreferenceProfile(0));
+        assertThrows(IllegalArgumentException.class, () -> new PreferenceProfile(1.5));
+    }
+
+    @Test
+    public void testWeightsAndRankingSurviveRescaling() {
+        // With decay 0.5 the increment doubles per return and passes the 1e100 threshold at the 333rd.
+        PreferenceProfile profile = new PreferenceProfile(0.5);
+        String[] authors = {"Rescale Author A", "Rescale Author B", "Rescale Author C", "Rescale Author D"};
+        int[] pattern = {0, 1, 0, 2, 3, 1, 0};
+        double[] expected = new double[authors.length];
+        for (int i = 0; i < 1_000; i++) {
+            int author = pattern[i % pattern.length];
+            profile.record(bookBy(i, authors[author], "Rescale Genre"));
+            for (int a = 0; a < expected.length; a++) {
+                expected[a] *= 0.5;
+            }
+            expected[author] += 1;
+            if (i >= 320 && i <= 350 || i >= 990) {
+                List<String> ranking = new ArrayList<>(List.of(authors));
+                ranking.sort((x, y) -> Double.compare(expected[indexOf(authors, y)], expected[indexOf(authors, x)]));
+                assertEquals(ranking, profile.getTopAuthors(authors.length), "after return " + (i + 1));
+                for (int a = 0; a < authors.length; a++) {
+                    assertEquals(expected[a], profile.getAuthorWeight(authors[a]), expected[a] * 1e-9, "after return " + (i + 1));
+                }
+                assertEquals(2.0 - Math.pow(0.5, i), profile.getGenreWeight("Rescale Genre"), 1e-9);
+            }
+        }
+    }
+
+    private static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // A return touches only the returned book's author and genre, so its cost does not grow with the history.
+    // Decay 1 keeps rescaling, the one pass over all weights, out of the measurement.
+    @Test
+    public void testRecordCostDoesNotGrowWithHistory() {
+        PreferenceProfile small = new PreferenceProfile(1.0);
+        PreferenceProfile large = new PreferenceProfile(1.0);
+        for (int i = 0; i < 100_000; i++) {
+            large.record(bookBy(i, "History Author " + i, "History Genre " + i % 1000));
+        }
+        List<Book> recent = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            recent.add(bookBy(200_000 + i, "Recent Author " + i, "Recent Genre " + i));
+        }
+
+        long smallNanos = Long.MAX_VALUE;
+        long largeNanos = Long.MAX_VALUE;
+        for (int trial = 0; trial < 5; trial++) {
+            smallNanos = Math.min(smallNanos, time(small, recent));
+            largeNanos = Math.min(largeNanos, time(large, recent));
+        }
+        assertTrue(largeNanos < smallNanos * 5 + 5_000_000, "small " + smallNanos + " ns, large " + largeNanos + " ns");
+        assertEquals(100_000 + 8, large.getAuthorCodes().size());
+    }
+
+    private static long time(PreferenceProfile profile, List<Book> books) {
+        long start = System.nanoTime();
+        for (int i = 0; i < 20_000; i++) {
+            profile.record(books.get(i & 7));
+        }
+        return System.nanoTime() - start;
+    }
+}
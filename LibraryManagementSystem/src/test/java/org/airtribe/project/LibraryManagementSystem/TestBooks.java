@@ -0,0 +1,40 @@
+package org.airtribe.project.LibraryManagementSystem;
+
+import org.airtribe.project.LibraryManagementSystem.Book.Book;
+import org.airtribe.project.LibraryManagementSystem.Book.BookBuilder;
+import org.airtribe.project.LibraryManagementSystem.Book.BookRegistry;
+
+// Shared Book factory for tests; pair with FreshBookRegistry so ISBNs only need to be unique within a test.
+public final class TestBooks {
+    public static final long FIRST_ISBN = 9_780_000_000_000L;
+
+    private TestBooks() {
+    }
+
+    public static long isbn(int number) {
+        return FIRST_ISBN + number;
+    }
+
+    // A builder with every required field set, for tests that override a few of them.
+    public static BookBuilder bookBuilder(long isbn) {
+        return new BookBuilder()
+                .setIsbn(isbn)
+                .setTitle("Book " + isbn)
+                .setAuthor("Author")
+                .setPublicationYear(2020)
+                .setGenre("Fiction");
+    }
+
+    public static Book newBook(long isbn) {
+        return bookBuilder(isbn).build();
+    }
+
+    public static Book newBook(long isbn, String title, String author, String genre) {
+        return bookBuilder(isbn).setTitle(title).setAuthor(author).setGenre(genre).build();
+    }
+
+    // A book with an ordinal, as it has once an Inventory stocked it; for tests that feed patrons directly.
+    public static Book registeredBook(long isbn) {
+        return BookRegistry.getInstance().register(newBook(isbn));
+    }
+}